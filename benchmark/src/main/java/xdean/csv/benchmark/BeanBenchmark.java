@@ -0,0 +1,98 @@
+package xdean.csv.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import io.reactivex.Flowable;
+import xdean.csv.CsvConfiguration;
+import xdean.csv.annotation.CSV;
+import xdean.csv.fluent.FluentCSV;
+
+/**
+ * Benchmark of {@link CsvConfiguration#readBean(Class)} and {@link CsvConfiguration#writeBean(Class)}
+ * with a bean of 4 numeric and 4 string properties. Each operation handles {@value #ROWS} rows.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BeanBenchmark {
+  private static final int ROWS = 1000;
+
+  @Param({ "8", "32" })
+  int width;
+
+  @Param({ "0", "0.3" })
+  double quoteRatio;
+
+  private CsvConfiguration csv;
+  private Flowable<String> lines;
+  private Flowable<Bean> beans;
+
+  @Setup
+  public void setup() {
+    csv = FluentCSV.create().quoter(Data.QUOTER);
+    Random random = new Random(Data.SEED);
+    List<Bean> list = new ArrayList<>(ROWS);
+    for (int i = 0; i < ROWS; i++) {
+      Bean bean = new Bean();
+      bean.i = random.nextInt();
+      bean.l = random.nextLong();
+      bean.d = random.nextDouble();
+      bean.b = random.nextBoolean();
+      bean.s1 = Data.text(random, width, random.nextDouble() < quoteRatio);
+      bean.s2 = Data.text(random, width, random.nextDouble() < quoteRatio);
+      bean.s3 = Data.text(random, width, random.nextDouble() < quoteRatio);
+      bean.s4 = Data.text(random, width, random.nextDouble() < quoteRatio);
+      list.add(bean);
+    }
+    beans = Flowable.fromIterable(list);
+    lines = Flowable.fromIterable(csv.writeBean(Bean.class).from(beans).toList().blockingGet());
+  }
+
+  @Benchmark
+  public void readBean(Blackhole bh) {
+    csv.readBean(Bean.class).from(lines).subscribe(bh::consume);
+  }
+
+  @Benchmark
+  public void writeBean(Blackhole bh) {
+    csv.writeBean(Bean.class).from(beans).subscribe(bh::consume);
+  }
+
+  public static class Bean {
+    @CSV
+    int i;
+    @CSV
+    long l;
+    @CSV
+    double d;
+    @CSV
+    boolean b;
+    @CSV
+    String s1;
+    @CSV
+    String s2;
+    @CSV
+    String s3;
+    @CSV
+    String s4;
+  }
+}
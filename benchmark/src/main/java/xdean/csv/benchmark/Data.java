@@ -0,0 +1,98 @@
+package xdean.csv.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import xdean.csv.CsvColumn;
+import xdean.csv.CsvValueFormatter;
+import xdean.csv.CsvValueParser;
+
+/**
+ * Deterministic benchmark data. Numeric columns hold integers, other columns hold strings of the
+ * width. Quoted fields contain the splitor so they must be quoted.
+ *
+ * @author Dean Xu (XDean@github.com)
+ */
+final class Data {
+  static final long SEED = 20180501L;
+  static final char QUOTER = '"';
+
+  private Data() {
+  }
+
+  /**
+   * If the column is numeric. The first {@code columns * numericRatio} columns are numeric.
+   */
+  static boolean isNumeric(int column, int columns, double numericRatio) {
+    return column < Math.round(columns * numericRatio);
+  }
+
+  static List<CsvColumn<?>> columns(int columns, double numericRatio) {
+    return IntStream.range(0, columns)
+        .mapToObj(i -> isNumeric(i, columns, numericRatio) ? column("c" + i, CsvValueParser.INT)
+            : column("c" + i, CsvValueParser.STRING))
+        .collect(Collectors.toList());
+  }
+
+  /**
+   * Column with both parser and formatter, so that it can be read and written.
+   */
+  static <T> CsvColumn<T> column(String name, CsvValueParser<T> parser) {
+    return CsvColumn.create(name, parser, CsvValueFormatter.toString(parser.type()), null, false);
+  }
+
+  static String header(int columns) {
+    return IntStream.range(0, columns).mapToObj(i -> "c" + i).collect(Collectors.joining(","));
+  }
+
+  /**
+   * Raw field values, not quoted.
+   */
+  static List<List<Object>> values(int rows, int columns, int width, double quoteRatio, double numericRatio) {
+    Random random = new Random(SEED);
+    List<List<Object>> result = new ArrayList<>(rows);
+    for (int r = 0; r < rows; r++) {
+      List<Object> row = new ArrayList<>(columns);
+      for (int c = 0; c < columns; c++) {
+        if (isNumeric(c, columns, numericRatio)) {
+          row.add(random.nextInt());
+        } else {
+          row.add(text(random, width, random.nextDouble() < quoteRatio));
+        }
+      }
+      result.add(row);
+    }
+    return result;
+  }
+
+  /**
+   * Lines including header.
+   */
+  static List<String> lines(int rows, int columns, int width, double quoteRatio, double numericRatio) {
+    List<String> lines = new ArrayList<>(rows + 1);
+    lines.add(header(columns));
+    for (List<Object> row : values(rows, columns, width, quoteRatio, numericRatio)) {
+      lines.add(row.stream()
+          .map(v -> {
+            String s = v.toString();
+            return s.indexOf(',') == -1 ? s : QUOTER + s + QUOTER;
+          })
+          .collect(Collectors.joining(",")));
+    }
+    return lines;
+  }
+
+  static String text(Random random, int width, boolean withSplitor) {
+    char[] cs = new char[width];
+    for (int i = 0; i < width; i++) {
+      cs[i] = (char) ('a' + random.nextInt(26));
+    }
+    if (withSplitor) {
+      cs[random.nextInt(width)] = ',';
+    }
+    return new String(cs);
+  }
+}
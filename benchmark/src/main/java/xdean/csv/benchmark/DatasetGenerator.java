@@ -0,0 +1,233 @@
+package xdean.csv.benchmark;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import io.reactivex.Flowable;
+import xdean.csv.CsvColumn;
+import xdean.csv.CsvConfiguration;
+import xdean.csv.CsvValueParser;
+import xdean.csv.fluent.FluentCSV;
+
+/**
+ * Deterministic synthetic CSV dataset generator. Same shape and seed always produce same file. The
+ * file is written by {@link CsvConfiguration#writeList()}.
+ *
+ * @apiNote Line breaks in values are escaped by the writer, so a record is always one line.
+ * @author Dean Xu (XDean@github.com)
+ */
+public final class DatasetGenerator {
+  /**
+   * Shape of dataset.
+   */
+  public static final class Shape {
+    String name = "default";
+    int columns = 8;
+    double numericRatio = 0.5;
+    int width = 16;
+    int cardinality = 0;
+    double quoteRatio = 0;
+    double escapeRatio = 0;
+    double multilineRatio = 0;
+
+    public static Shape of(String name) {
+      Shape shape = new Shape();
+      shape.name = name;
+      return shape;
+    }
+
+    public String name() {
+      return name;
+    }
+
+    /**
+     * Count of columns.
+     */
+    public Shape columns(int columns) {
+      this.columns = columns;
+      return this;
+    }
+
+    /**
+     * Ratio of numeric columns. Numeric columns are int, long and double in turn.
+     */
+    public Shape numericRatio(double numericRatio) {
+      this.numericRatio = numericRatio;
+      return this;
+    }
+
+    /**
+     * Width of string values.
+     */
+    public Shape width(int width) {
+      this.width = width;
+      return this;
+    }
+
+    /**
+     * Count of distinct values of each string column, 0 means unlimited.
+     */
+    public Shape cardinality(int cardinality) {
+      this.cardinality = cardinality;
+      return this;
+    }
+
+    /**
+     * Ratio of string values containing the splitor, which should be quoted or escaped.
+     */
+    public Shape quoteRatio(double quoteRatio) {
+      this.quoteRatio = quoteRatio;
+      return this;
+    }
+
+    /**
+     * Ratio of string values containing the quoter or escaper.
+     */
+    public Shape escapeRatio(double escapeRatio) {
+      this.escapeRatio = escapeRatio;
+      return this;
+    }
+
+    /**
+     * Ratio of string values containing line break.
+     */
+    public Shape multilineRatio(double multilineRatio) {
+      this.multilineRatio = multilineRatio;
+      return this;
+    }
+  }
+
+  private final Shape shape;
+  private final long seed;
+  private final List<CsvColumn<?>> columns = new ArrayList<>();
+  private final String[] pool;
+
+  public DatasetGenerator(Shape shape, long seed) {
+    this.shape = shape;
+    this.seed = seed;
+    long numeric = Math.round(shape.columns * shape.numericRatio);
+    for (int i = 0; i < shape.columns; i++) {
+      String name = "c" + i;
+      if (i < numeric) {
+        switch (i % 3) {
+        case 0:
+          columns.add(Data.column(name, CsvValueParser.INT));
+          break;
+        case 1:
+          columns.add(Data.column(name, CsvValueParser.LONG));
+          break;
+        default:
+          columns.add(Data.column(name, CsvValueParser.DOUBLE));
+          break;
+        }
+      } else {
+        columns.add(Data.column(name, CsvValueParser.STRING));
+      }
+    }
+    Random random = new Random(~seed);
+    this.pool = new String[shape.cardinality];
+    for (int i = 0; i < pool.length; i++) {
+      pool[i] = text(random, random.nextDouble());
+    }
+  }
+
+  public Shape shape() {
+    return shape;
+  }
+
+  public List<CsvColumn<?>> columns() {
+    return columns;
+  }
+
+  /**
+   * Create the configuration with the dataset's columns and dialect.
+   */
+  public CsvConfiguration configuration() {
+    CsvConfiguration csv = FluentCSV.create().quoter(Data.QUOTER);
+    columns.forEach(csv::addColumn);
+    return csv;
+  }
+
+  /**
+   * Infinite rows.
+   */
+  public Flowable<List<Object>> rows() {
+    return Flowable.generate(() -> new Random(seed), (random, e) -> {
+      List<Object> row = new ArrayList<>(columns.size());
+      for (CsvColumn<?> column : columns) {
+        Class<?> type = column.parser().type();
+        if (type == Integer.class) {
+          row.add(random.nextInt());
+        } else if (type == Long.class) {
+          row.add(random.nextLong());
+        } else if (type == Double.class) {
+          row.add(random.nextDouble() * 1e6);
+        } else {
+          row.add(text(random));
+        }
+      }
+      e.onNext(row);
+    });
+  }
+
+  /**
+   * Write rows to the file.
+   *
+   * @return the count of written bytes
+   */
+  public long generate(Path path, long rows) throws IOException {
+    return write(path, configuration().writeList().from(rows().take(rows)));
+  }
+
+  /**
+   * Write rows to the file until its size reaches the bytes.
+   *
+   * @return the count of written bytes
+   */
+  public long generateSize(Path path, long bytes) throws IOException {
+    long[] written = { 0 };
+    return write(path, configuration().writeList().from(rows())
+        .takeWhile(l -> written[0] < bytes)
+        .doOnNext(l -> written[0] += l.length() + 1));
+  }
+
+  private long write(Path path, Flowable<String> lines) throws IOException {
+    long[] bytes = { 0 };
+    try (BufferedWriter writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+      for (String line : lines.blockingIterable()) {
+        writer.write(line);
+        writer.write('\n');
+        bytes[0] += line.getBytes(StandardCharsets.UTF_8).length + 1;
+      }
+    }
+    return bytes[0];
+  }
+
+  private String text(Random random) {
+    if (pool.length > 0) {
+      return pool[random.nextInt(pool.length)];
+    }
+    return text(random, random.nextDouble());
+  }
+
+  private String text(Random random, double special) {
+    char[] cs = new char[Math.max(shape.width, 1)];
+    for (int i = 0; i < cs.length; i++) {
+      cs[i] = (char) ('a' + random.nextInt(26));
+    }
+    if (special < shape.quoteRatio) {
+      cs[random.nextInt(cs.length)] = ',';
+    } else if ((special -= shape.quoteRatio) < shape.escapeRatio) {
+      cs[random.nextInt(cs.length)] = random.nextBoolean() ? Data.QUOTER : '\\';
+    } else if ((special -= shape.escapeRatio) < shape.multilineRatio) {
+      cs[random.nextInt(cs.length)] = '\n';
+    }
+    return new String(cs);
+  }
+}
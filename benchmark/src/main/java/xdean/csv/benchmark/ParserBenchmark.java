@@ -0,0 +1,104 @@
+package xdean.csv.benchmark;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import xdean.csv.CsvValueParser;
+
+/**
+ * Benchmark of default {@link CsvValueParser}s. Each operation parses {@value #SIZE} texts, the
+ * invalid ones are only used by {@link #tryParse(Blackhole)}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParserBenchmark {
+  private static final int SIZE = 1024;
+  private static final String[] INVALID = { "N/A", "-", "null", "?" };
+
+  @Param({ "INT", "LONG", "FLOAT", "DOUBLE", "BOOLEAN", "STRING" })
+  String type;
+
+  @Param({ "0", "0.1" })
+  double invalidRatio;
+
+  private CsvValueParser<?> parser;
+  private String[] texts;
+  private String[] mixed;
+
+  @Setup
+  public void setup() {
+    Random random = new Random(Data.SEED);
+    parser = parser(type);
+    texts = new String[SIZE];
+    mixed = new String[SIZE];
+    for (int i = 0; i < SIZE; i++) {
+      texts[i] = text(random);
+      mixed[i] = random.nextDouble() < invalidRatio ? INVALID[random.nextInt(INVALID.length)] : texts[i];
+    }
+  }
+
+  @Benchmark
+  public void parse(Blackhole bh) {
+    for (String text : texts) {
+      bh.consume(parser.parse(text));
+    }
+  }
+
+  @Benchmark
+  public void tryParse(Blackhole bh) {
+    for (String text : mixed) {
+      bh.consume(parser.tryParse(text));
+    }
+  }
+
+  private String text(Random random) {
+    switch (type) {
+    case "INT":
+      return Integer.toString(random.nextInt());
+    case "LONG":
+      return Long.toString(random.nextLong());
+    case "FLOAT":
+      return Float.toString(random.nextFloat() * 1000);
+    case "DOUBLE":
+      return Double.toString(random.nextDouble() * 1000);
+    case "BOOLEAN":
+      return Boolean.toString(random.nextBoolean());
+    default:
+      return Data.text(random, 16, false);
+    }
+  }
+
+  private static CsvValueParser<?> parser(String type) {
+    switch (type) {
+    case "INT":
+      return CsvValueParser.INT;
+    case "LONG":
+      return CsvValueParser.LONG;
+    case "FLOAT":
+      return CsvValueParser.FLOAT;
+    case "DOUBLE":
+      return CsvValueParser.DOUBLE;
+    case "BOOLEAN":
+      return CsvValueParser.BOOLEAN;
+    default:
+      return CsvValueParser.STRING;
+    }
+  }
+}
@@ -0,0 +1,84 @@
+package xdean.csv.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import io.reactivex.Flowable;
+import xdean.csv.CsvColumn;
+import xdean.csv.CsvConfiguration;
+import xdean.csv.fluent.FluentCSV;
+
+/**
+ * Benchmark of {@link CsvConfiguration#readMap()} and {@link CsvConfiguration#readList()}, with
+ * batching or reuse. Each operation reads {@value #ROWS} rows.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReadBenchmark {
+  private static final int ROWS = 1000;
+
+  @Param({ "4", "16" })
+  int columns;
+
+  @Param({ "8", "32" })
+  int width;
+
+  @Param({ "0", "0.3" })
+  double quoteRatio;
+
+  @Param({ "0", "0.5", "1" })
+  double numericRatio;
+
+  private CsvConfiguration csv;
+  private CsvConfiguration reused;
+  private Flowable<String> lines;
+
+  @Setup
+  public void setup() {
+    csv = FluentCSV.create().quoter(Data.QUOTER);
+    reused = FluentCSV.create().quoter(Data.QUOTER).reuse(true);
+    for (CsvColumn<?> column : Data.columns(columns, numericRatio)) {
+      csv.addColumn(column);
+      reused.addColumn(column);
+    }
+    List<String> list = Data.lines(ROWS, columns, width, quoteRatio, numericRatio);
+    lines = Flowable.fromIterable(list);
+  }
+
+  @Benchmark
+  public void readMap(Blackhole bh) {
+    csv.readMap().from(lines).subscribe(bh::consume);
+  }
+
+  @Benchmark
+  public void readMapReused(Blackhole bh) {
+    reused.readMap().from(lines).subscribe(bh::consume);
+  }
+
+  @Benchmark
+  public void readList(Blackhole bh) {
+    csv.readList().from(lines).subscribe(bh::consume);
+  }
+
+  @Benchmark
+  public void readListBatched(Blackhole bh) {
+    csv.readList().fromBatched(lines, 256).subscribe(bh::consume);
+  }
+}
@@ -0,0 +1,86 @@
+package xdean.csv.benchmark;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import xdean.csv.CsvException;
+import xdean.csv.fluent.Configuration;
+
+/**
+ * Benchmark of {@link Configuration#split(String)}, {@link Configuration#tokenize(java.io.Reader,
+ * xdean.csv.CsvRecordHandler)} and {@link Configuration#escape(String)}. Each operation handles
+ * {@value #ROWS} lines.
+ *
+ * The vectorized tokenizer takes effect only with {@code -jvmArgsAppend --add-modules=jdk.incubator.vector}
+ * on Java 17+, otherwise it's the same as the scalar one.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SplitBenchmark {
+  private static final int ROWS = 256;
+
+  @Param({ "4", "16", "64" })
+  int columns;
+
+  @Param({ "8", "32" })
+  int width;
+
+  @Param({ "0", "0.3" })
+  double quoteRatio;
+
+  @Param({ "false", "true" })
+  boolean vectorize;
+
+  private Configuration config;
+  private List<String> lines;
+  private List<List<Object>> values;
+  private String text;
+
+  @Setup
+  public void setup() {
+    config = Configuration.builder().quoter(Data.QUOTER).vectorize(vectorize).build();
+    lines = Data.lines(ROWS, columns, width, quoteRatio, 0).subList(1, ROWS + 1);
+    values = Data.values(ROWS, columns, width, quoteRatio, 0);
+    text = String.join("\n", Data.lines(ROWS, columns, width, quoteRatio, 0));
+  }
+
+  @Benchmark
+  public void split(Blackhole bh) throws CsvException {
+    for (String line : lines) {
+      bh.consume(config.split(line));
+    }
+  }
+
+  @Benchmark
+  public void tokenize(Blackhole bh) throws IOException, CsvException {
+    bh.consume(config.tokenize(new StringReader(text), (column, buffer, offset, length) -> bh.consume(length)));
+  }
+
+  @Benchmark
+  public void escape(Blackhole bh) {
+    for (List<Object> row : values) {
+      for (Object value : row) {
+        bh.consume(config.escape((String) value));
+      }
+    }
+  }
+}
@@ -0,0 +1,139 @@
+package xdean.csv.benchmark;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintWriter;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+import xdean.csv.CsvReader;
+import xdean.csv.fluent.FluentCSV;
+
+/**
+ * End-to-end throughput suite. Generates datasets by {@link DatasetGenerator}, reads them by
+ * {@link CsvReader#from(Path)}, {@link CsvReader#from(InputStream)} and
+ * {@link CsvReader#from(String)}, and records MB/s and rows/s to a JSON baseline file.
+ *
+ * <pre>
+ * java -cp benchmarks.jar xdean.csv.benchmark.ThroughputSuite [dir] [megabytes] [baseline]
+ * </pre>
+ *
+ * Datasets are reused if they exist with the same size. String source is skipped for datasets
+ * larger than {@value #STRING_LIMIT_MB} MB.
+ *
+ * @author Dean Xu (XDean@github.com)
+ */
+public class ThroughputSuite {
+  private static final int STRING_LIMIT_MB = 256;
+  private static final int WARMUP = 1;
+  private static final int ITERATIONS = 3;
+  private static final double MB = 1024 * 1024;
+
+  private static final List<DatasetGenerator.Shape> SHAPES = Arrays.asList(
+      DatasetGenerator.Shape.of("numeric")
+          .columns(8)
+          .numericRatio(1),
+      DatasetGenerator.Shape.of("mixed")
+          .columns(16)
+          .numericRatio(0.5)
+          .width(16)
+          .quoteRatio(0.1)
+          .escapeRatio(0.02),
+      DatasetGenerator.Shape.of("wide-text")
+          .columns(64)
+          .numericRatio(0)
+          .width(32)
+          .cardinality(1000)
+          .quoteRatio(0.2)
+          .escapeRatio(0.05)
+          .multilineRatio(0.01));
+
+  private enum Source {
+    PATH,
+    INPUT_STREAM,
+    STRING;
+  }
+
+  public static void main(String[] args) throws Exception {
+    Path dir = Paths.get(args.length > 0 ? args[0] : "target/datasets");
+    long bytes = (long) ((args.length > 1 ? Double.parseDouble(args[1]) : 64) * MB);
+    Path baseline = Paths.get(args.length > 2 ? args[2] : "target/throughput.json");
+    Files.createDirectories(dir);
+    List<String> results = new ArrayList<>();
+    for (DatasetGenerator.Shape shape : SHAPES) {
+      DatasetGenerator generator = new DatasetGenerator(shape, Data.SEED);
+      Path file = dir.resolve(shape.name() + "-" + bytes + ".csv");
+      if (!Files.exists(file)) {
+        System.out.printf("Generating %s%n", file);
+        generator.generateSize(file, bytes);
+      }
+      CsvReader<List<Object>> reader = generator.configuration().readList();
+      for (Source source : Source.values()) {
+        if (source == Source.STRING && Files.size(file) > STRING_LIMIT_MB * MB) {
+          continue;
+        }
+        for (int i = 0; i < WARMUP; i++) {
+          read(reader, source, file);
+        }
+        long rows = 0;
+        long nanos = 0;
+        for (int i = 0; i < ITERATIONS; i++) {
+          long start = System.nanoTime();
+          rows = read(reader, source, file);
+          nanos += System.nanoTime() - start;
+        }
+        double seconds = nanos / 1e9 / ITERATIONS;
+        double mbPerSecond = Files.size(file) / MB / seconds;
+        double rowsPerSecond = rows / seconds;
+        System.out.printf("%-10s %-13s %10.2f MB/s %14.0f rows/s%n", shape.name(), source, mbPerSecond, rowsPerSecond);
+        results.add(String.format(Locale.ROOT,
+            "{\"shape\":\"%s\",\"source\":\"%s\",\"bytes\":%d,\"rows\":%d,\"seconds\":%.6f,"
+                + "\"mbPerSecond\":%.3f,\"rowsPerSecond\":%.1f}",
+            shape.name(), source, Files.size(file), rows, seconds, mbPerSecond, rowsPerSecond));
+      }
+    }
+    writeBaseline(baseline, results);
+    System.out.printf("Baseline written to %s%n", baseline);
+  }
+
+  private static long read(CsvReader<List<Object>> reader, Source source, Path file) throws IOException {
+    switch (source) {
+    case PATH:
+      return reader.from(file).count().blockingGet();
+    case INPUT_STREAM:
+      try (InputStream in = Files.newInputStream(file)) {
+        return reader.from(in).count().blockingGet();
+      }
+    case STRING:
+      String text = new String(Files.readAllBytes(file), Charset.defaultCharset());
+      return reader.from(text).count().blockingGet();
+    default:
+      throw new IllegalArgumentException(source.name());
+    }
+  }
+
+  private static void writeBaseline(Path baseline, List<String> results) throws IOException {
+    if (baseline.getParent() != null) {
+      Files.createDirectories(baseline.getParent());
+    }
+    String version = FluentCSV.class.getPackage().getImplementationVersion();
+    try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(baseline))) {
+      writer.println("{");
+      writer.printf("  \"version\": \"%s\",%n", version == null ? "unknown" : version);
+      writer.printf("  \"java\": \"%s\",%n", System.getProperty("java.version"));
+      writer.printf("  \"timestamp\": %d,%n", System.currentTimeMillis());
+      writer.println("  \"results\": [");
+      for (int i = 0; i < results.size(); i++) {
+        writer.printf("    %s%s%n", results.get(i), i == results.size() - 1 ? "" : ",");
+      }
+      writer.println("  ]");
+      writer.println("}");
+    }
+  }
+}
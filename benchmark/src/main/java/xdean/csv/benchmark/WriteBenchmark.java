@@ -0,0 +1,74 @@
+package xdean.csv.benchmark;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import io.reactivex.Flowable;
+import xdean.csv.CsvColumn;
+import xdean.csv.CsvConfiguration;
+import xdean.csv.fluent.FluentCSV;
+
+/**
+ * Benchmark of {@link CsvConfiguration#writeMap()}. Each operation writes {@value #ROWS} rows.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WriteBenchmark {
+  private static final int ROWS = 1000;
+
+  @Param({ "4", "16" })
+  int columns;
+
+  @Param({ "8", "32" })
+  int width;
+
+  @Param({ "0", "0.3" })
+  double quoteRatio;
+
+  @Param({ "0", "0.5", "1" })
+  double numericRatio;
+
+  private CsvConfiguration csv;
+  private Flowable<Map<CsvColumn<?>, Object>> data;
+
+  @Setup
+  public void setup() {
+    csv = FluentCSV.create().quoter(Data.QUOTER);
+    List<CsvColumn<?>> list = Data.columns(columns, numericRatio);
+    list.forEach(csv::addColumn);
+    List<Map<CsvColumn<?>, Object>> maps = new ArrayList<>(ROWS);
+    for (List<Object> row : Data.values(ROWS, columns, width, quoteRatio, numericRatio)) {
+      Map<CsvColumn<?>, Object> map = new HashMap<>();
+      for (int i = 0; i < columns; i++) {
+        map.put(list.get(i), row.get(i));
+      }
+      maps.add(map);
+    }
+    data = Flowable.fromIterable(maps);
+  }
+
+  @Benchmark
+  public void writeMap(Blackhole bh) {
+    csv.writeMap().from(data).subscribe(bh::consume);
+  }
+}
@@ -0,0 +1,41 @@
+package xdean.csv;
+
+import java.util.List;
+
+/**
+ * Push callback of records tokenized from raw bytes. Fields are passed as unquoted and unescaped
+ * bytes in the input charset without decoding, so that only the fields the handler needs are
+ * decoded, e.g. by {@code new String(buffer, offset, length, charset)}.
+ *
+ * @apiNote The buffer is the tokenizer's input or its own buffer, both are reused. It must not be
+ *          modified and its content is only valid during the call.
+ * @author Dean Xu (XDean@github.com)
+ * @see CsvConfiguration#tokenize(java.io.InputStream, java.nio.charset.Charset, CsvByteRecordHandler)
+ */
+@FunctionalInterface
+public interface CsvByteRecordHandler {
+  /**
+   * The header is read.
+   */
+  default void header(List<String> names) throws CsvException {
+  }
+
+  /**
+   * A record starts.
+   */
+  default void startRecord() throws CsvException {
+  }
+
+  /**
+   * A field of the current record.
+   *
+   * @param column the column index in the record
+   */
+  void field(int column, byte[] buffer, int offset, int length) throws CsvException;
+
+  /**
+   * The current record ends.
+   */
+  default void endRecord() throws CsvException {
+  }
+}
@@ -50,6 +50,77 @@ public interface CsvColumn<T> {
   @OnlyForRead(canBeNull = true)
   Supplier<T> defaultValue();
 
+  /**
+   * The dictionary size. If positive, equal values of this column share the same String instance
+   * until the number of distinct values exceeds the size. It's useful for low-cardinality column.
+   */
+  @OnlyForRead
+  default int dictionary() {
+    return 0;
+  }
+
+  /**
+   * Create a copy of this column with the given dictionary size.
+   *
+   * @see #dictionary()
+   */
+  default CsvColumn<T> withDictionary(int size) {
+    CsvColumn<T> origin = this;
+    return new CsvColumn<T>() {
+      @Override
+      public String name() {
+        return origin.name();
+      }
+
+      @Override
+      public CsvValueParser<T> parser() {
+        return origin.parser();
+      }
+
+      @Override
+      public CsvValueFormatter<T> formatter() {
+        return origin.formatter();
+      }
+
+      @Override
+      public Supplier<T> defaultValue() {
+        return origin.defaultValue();
+      }
+
+      @Override
+      public boolean optional() {
+        return origin.optional();
+      }
+
+      @Override
+      public int dictionary() {
+        return size;
+      }
+
+      @Override
+      public int hashCode() {
+        return Objects.hash(name());
+      }
+
+      @Override
+      public boolean equals(Object obj) {
+        if (!(obj instanceof CsvColumn)) {
+          return false;
+        }
+        return Objects.equals(name(), ((CsvColumn<?>) obj).name());
+      }
+
+      @Override
+      public String toString() {
+        return MoreObjects.toStringHelper(this)
+            .add("name", name())
+            .add("optional", optional())
+            .add("dictionary", size)
+            .toString();
+      }
+    };
+  }
+
   /**
    * {@link #create(String, CsvValueParser, CsvValueFormatter, Supplier, boolean)}
    */
@@ -1,12 +1,24 @@
 package xdean.csv;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 
+import javax.annotation.Nullable;
+
 import xdean.csv.CsvReader.CsvBeanReader;
 import xdean.csv.CsvWriter.CsvBeanWriter;
 import xdean.csv.annotation.CSV;
+import xdean.csv.io.CsvKeyIndex;
+import xdean.csv.io.CsvRangeSeek;
+import xdean.csv.io.CsvZoneMap;
+import xdean.csv.io.LineDecoder;
 import xdean.fluent.Fluent;
 
 /**
@@ -18,13 +30,16 @@ import xdean.fluent.Fluent;
 public interface CsvConfiguration extends Fluent<CsvConfiguration> {
 
   char NO_QUOTER = '\u0000';
+  char NO_ESCAPER = '\u0000';
 
   char DEFAULT_ESCAPER = '\\';
   char DEFAULT_QUOTER = NO_QUOTER;
   char DEFAULT_SPLITOR = ',';
 
   /**
-   * Escape character. Default value is {@link #DEFAULT_ESCAPER}.
+   * Escape character. Default value is {@link #DEFAULT_ESCAPER}. Use {@link #NO_ESCAPER} for
+   * dialects without escape, e.g. TSV. Then values are written as is, so they must not contain the
+   * splitor or line separator.
    */
   CsvConfiguration escaper(char escaper);
 
@@ -48,6 +63,70 @@ public interface CsvConfiguration extends Fluent<CsvConfiguration> {
    */
   CsvConfiguration ignoreLeadingSpace(boolean b);
 
+  /**
+   * Scan structural characters by the JDK Vector API or not. Default value is false.
+   *
+   * @apiNote It takes effect only if the library is built with the {@code vector} profile and runs
+   *          on Java 17+ with {@code --add-modules jdk.incubator.vector}. Otherwise the scalar
+   *          tokenizer is used.
+   */
+  CsvConfiguration vectorize(boolean b);
+
+  /**
+   * Cache the parsed values of file in a binary snapshot next to the file or not. Later read of
+   * the unchanged file with the same columns will stream values from the snapshot directly. Default
+   * value is false.
+   *
+   * @apiNote Only takes effect on {@link CsvReader#from(java.nio.file.Path)} and only when all
+   *          columns are String, primitive or enum. Columns must use default parsers unless the
+   *          schema version is given by {@link #snapshot(String)}. Snapshot is not used in lenient
+   *          error policy, because bad rows must be reported on every read.
+   */
+  CsvConfiguration snapshot(boolean b);
+
+  /**
+   * Enable snapshot with the schema version. Columns with custom parser are stored in snapshot only
+   * if there is a schema version, because their parsing can't be identified. Change the version
+   * when any custom parser changes.
+   *
+   * @see #snapshot(boolean)
+   */
+  CsvConfiguration snapshot(String version);
+
+  /**
+   * Reuse one map or bean for all rows of a subscription or not. The emitted instance is only valid
+   * until the next row is emitted. Default value is false.
+   *
+   * @apiNote Only takes effect on {@link CsvReader#from(io.reactivex.Flowable)} and its overloads,
+   *          but not on batched or stream reading. Bean is reused only when it's constructed by
+   *          no-arg constructor. Properties absent in the row are reset to null, or zero for
+   *          primitive types.
+   */
+  CsvConfiguration reuse(boolean b);
+
+  /**
+   * Set the policy to handle bad rows. Default value is {@link CsvErrorPolicy#FAIL_FAST}.
+   */
+  CsvConfiguration errorPolicy(CsvErrorPolicy policy);
+
+  /**
+   * Set the receiver of errors under lenient {@link #errorPolicy(CsvErrorPolicy)}. Default value is
+   * {@link CsvErrorSink#IGNORE}.
+   */
+  CsvConfiguration errorSink(CsvErrorSink sink);
+
+  /**
+   * Set the metrics listener of readers and writers. Default value is {@link CsvMetrics#NONE}.
+   */
+  CsvConfiguration metrics(CsvMetrics metrics);
+
+  /**
+   * Set the column parse profiler of readers. Default value is null, i.e. not profile.
+   *
+   * @see CsvProfiler#sampling(int)
+   */
+  CsvConfiguration profiler(@Nullable CsvProfiler profiler);
+
   /**
    * Add column to the context.
    */
@@ -89,6 +168,102 @@ public interface CsvConfiguration extends Fluent<CsvConfiguration> {
    */
   <T> CsvBeanReader<T> readBean(Class<T> bean);
 
+  /**
+   * Push fields of all records to the handler without creating row objects. Comment lines are
+   * skipped and the header is passed to {@link CsvRecordHandler#header(List)}. Columns are not used.
+   *
+   * @return the count of records, excluding header
+   */
+  long tokenize(Reader reader, CsvRecordHandler handler) throws IOException, CsvException;
+
+  /**
+   * Push fields of all records to the handler as undecoded bytes, so that only the fields the
+   * handler needs are decoded. The charset must be ASCII compatible and the splitor, quoter and
+   * escaper must be ASCII. The UTF-8 byte order mark is skipped.
+   *
+   * @return the count of records, excluding header
+   * @see #tokenize(Reader, CsvRecordHandler)
+   */
+  long tokenize(InputStream input, Charset charset, CsvByteRecordHandler handler) throws IOException, CsvException;
+
+  /**
+   * Push fields of all records of the file in default charset to the handler.
+   *
+   * @see #tokenize(Path, Charset, CsvRecordHandler)
+   */
+  default long tokenize(Path path, CsvRecordHandler handler) throws IOException, CsvException {
+    return tokenize(path, Charset.defaultCharset(), handler);
+  }
+
+  /**
+   * Push fields of all records of the file in the charset to the handler. The byte order mark is
+   * detected and overrides the charset.
+   *
+   * @see #tokenize(Reader, CsvRecordHandler)
+   * @see LineDecoder
+   */
+  default long tokenize(Path path, Charset charset, CsvRecordHandler handler) throws IOException, CsvException {
+    try (InputStream input = Files.newInputStream(path);
+        Reader reader = LineDecoder.reader(input, charset)) {
+      return tokenize(reader, handler);
+    }
+  }
+
+  /**
+   * Get the persistent hash index of the key column for the file in default charset.
+   *
+   * @see #keyIndex(Path, CsvColumn, Charset)
+   */
+  default <K> CsvKeyIndex<K> keyIndex(Path csv, CsvColumn<K> key) throws IOException, CsvException {
+    return keyIndex(csv, key, Charset.defaultCharset());
+  }
+
+  /**
+   * Get the persistent hash index of the key column for the file. The index will be loaded from or
+   * saved to {@link CsvKeyIndex#pathOf(Path, CsvColumn)}. Use {@link CsvKeyIndex#lookup(CsvReader, Object)}
+   * to read rows by key without full scan.
+   *
+   * @param charset the file's charset, must be ASCII compatible
+   */
+  <K> CsvKeyIndex<K> keyIndex(Path csv, CsvColumn<K> key, Charset charset) throws IOException, CsvException;
+
+  /**
+   * Declare the file in default charset is sorted by the key column in ascending order.
+   *
+   * @see #sortedBy(Path, CsvColumn, Charset)
+   */
+  default <K extends Comparable<? super K>> CsvRangeSeek<K> sortedBy(Path csv, CsvColumn<K> key) {
+    return sortedBy(csv, key, Charset.defaultCharset());
+  }
+
+  /**
+   * Declare the file is sorted by the key column in ascending order. Use
+   * {@link CsvRangeSeek#range(CsvReader, Comparable, Comparable)} to read key range by binary
+   * search.
+   *
+   * @param charset the file's charset, must be ASCII compatible
+   */
+  <K extends Comparable<? super K>> CsvRangeSeek<K> sortedBy(Path csv, CsvColumn<K> key, Charset charset);
+
+  /**
+   * Get the zone map of the columns for the file in default charset.
+   *
+   * @see #zoneMap(Path, Charset, CsvColumn...)
+   */
+  default CsvZoneMap zoneMap(Path csv, CsvColumn<?>... columns) throws IOException, CsvException {
+    return zoneMap(csv, Charset.defaultCharset(), columns);
+  }
+
+  /**
+   * Get the zone map (block-level min/max statistics) of the columns. It will be built and saved
+   * beside the file if absent or out of date. Use
+   * {@link CsvZoneMap#select(CsvColumn, Comparable, Comparable)} to read key range by skipping
+   * unmatched blocks.
+   *
+   * @param charset the file's charset, must be ASCII compatible
+   */
+  CsvZoneMap zoneMap(Path csv, Charset charset, CsvColumn<?>... columns) throws IOException, CsvException;
+
   /**********************************
    * Write
    ************************************/
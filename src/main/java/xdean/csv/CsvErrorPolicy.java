@@ -0,0 +1,23 @@
+package xdean.csv;
+
+/**
+ * How to handle bad rows when reading.
+ *
+ * @author Dean Xu (XDean@github.com)
+ */
+public enum CsvErrorPolicy {
+  /**
+   * Terminate the read with the error. It's the default policy.
+   */
+  FAIL_FAST,
+  /**
+   * Report the error to {@link CsvErrorSink} and skip the row.
+   */
+  SKIP_ROW,
+  /**
+   * Report the error to {@link CsvErrorSink} and use the column's default value for the bad cell. If
+   * the column has no default value, the cell is treated as absent. Row can't be tokenized is still
+   * skipped.
+   */
+  SUBSTITUTE_DEFAULT;
+}
@@ -0,0 +1,27 @@
+package xdean.csv;
+
+import javax.annotation.Nullable;
+
+/**
+ * Receiver of read errors under lenient {@link CsvErrorPolicy}. The errors have no stack trace.
+ *
+ * @author Dean Xu (XDean@github.com)
+ */
+@FunctionalInterface
+public interface CsvErrorSink {
+  /**
+   * Sink that ignores all errors.
+   */
+  CsvErrorSink IGNORE = (row, column, text, error) -> {
+  };
+
+  /**
+   * Receive an error.
+   *
+   * @param row 0-based row index, not include header and comments
+   * @param column the bad column, or null if the whole row is bad
+   * @param text the raw text of the bad cell, or the whole line if column is null
+   * @param error the error
+   */
+  void accept(long row, @Nullable CsvColumn<?> column, String text, CsvException error);
+}
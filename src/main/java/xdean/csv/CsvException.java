@@ -30,6 +30,13 @@ public class CsvException extends Exception {
     super(message);
   }
 
+  /**
+   * {@link Exception#Exception(String, Throwable, boolean, boolean)}
+   */
+  public CsvException(String message, Throwable cause, boolean enableSuppression, boolean writableStackTrace) {
+    super(message, cause, enableSuppression, writableStackTrace);
+  }
+
   /**
    * {@link Exception#Exception(Throwable)}
    */
@@ -45,6 +52,13 @@ public class CsvException extends Exception {
     super(String.format(format, args));
   }
 
+  /**
+   * Create exception without stack trace. It's cheap for errors as data.
+   */
+  public static CsvException stackless(String message, Throwable cause) {
+    return new CsvException(message, cause, false, false);
+  }
+
   public static void assertTrue(boolean b, String msg, Object... args) throws CsvException {
     if (!b) {
       throw new CsvException(msg, args);
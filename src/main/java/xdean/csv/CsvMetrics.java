@@ -0,0 +1,209 @@
+package xdean.csv;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.base.MoreObjects.ToStringHelper;
+
+/**
+ * Metrics listener of CSV reading and writing. All methods are called synchronously in the
+ * processing thread, so implementation should be cheap and thread safe.
+ *
+ * @apiNote When the metrics is {@link #NONE}, readers and writers don't measure anything.
+ * @author Dean Xu (XDean@github.com)
+ */
+public interface CsvMetrics {
+  /**
+   * Processing stages.
+   */
+  enum Stage {
+    /**
+     * Get line from input, including waiting for the input.
+     */
+    FRAMING,
+    /**
+     * Split line to fields.
+     */
+    SPLIT,
+    /**
+     * Parse fields to values.
+     */
+    PARSE,
+    /**
+     * Construct bean from values, or deconstruct bean to values.
+     */
+    BIND,
+    /**
+     * Format values to line.
+     */
+    FORMAT;
+  }
+
+  /**
+   * Metrics that does nothing.
+   */
+  CsvMetrics NONE = new CsvMetrics() {
+  };
+
+  /**
+   * Create a simple counter metrics.
+   */
+  static Counter counter() {
+    return new Counter();
+  }
+
+  /**
+   * Create metrics that emits JDK Flight Recorder events. The events are disabled by default, enable
+   * them in the recording settings. Slow rows are rows whose any stage takes more than the
+   * threshold.
+   *
+   * @return the JFR metrics, or {@link #NONE} if JFR is not available, i.e. the runtime is older
+   *         than Java 11 or the library is built without the {@code jfr} profile
+   */
+  static CsvMetrics jfr(long slowRowNanos) {
+    try {
+      return (CsvMetrics) Class.forName("xdean.csv.jfr.JfrMetrics")
+          .getConstructor(long.class)
+          .newInstance(slowRowNanos);
+    } catch (ReflectiveOperationException | LinkageError e) {
+      return NONE;
+    }
+  }
+
+  /**
+   * A record is read or written.
+   *
+   * @param chars the length of the line plus one for line terminator. It equals to bytes for ASCII
+   *          content.
+   */
+  default void onRecord(int chars) {
+  }
+
+  /**
+   * A stage is done for a record.
+   */
+  default void onStage(Stage stage, long nanos) {
+  }
+
+  /**
+   * An error happens in the stage.
+   */
+  default void onError(Stage stage) {
+  }
+
+  /**
+   * The output waited for downstream request.
+   */
+  default void onBackpressure(long nanos) {
+  }
+
+  /**
+   * A read or write is finished by completion, error or cancellation. It's called in the thread
+   * that finishes it.
+   */
+  default void onFinish() {
+  }
+
+  /**
+   * The header is resolved to columns.
+   */
+  default void onHeader(List<String> header, long nanos) {
+  }
+
+  /**
+   * The binding plan of the bean class is compiled.
+   */
+  default void onBindingPlan(Class<?> bean, long nanos) {
+  }
+
+  /**
+   * Metrics counting by {@link LongAdder}.
+   */
+  class Counter implements CsvMetrics {
+    private final LongAdder records = new LongAdder();
+    private final LongAdder chars = new LongAdder();
+    private final LongAdder backpressure = new LongAdder();
+    private final Map<Stage, LongAdder> nanos = new EnumMap<>(Stage.class);
+    private final Map<Stage, LongAdder> errors = new EnumMap<>(Stage.class);
+    private final long start = System.nanoTime();
+
+    protected Counter() {
+      for (Stage stage : Stage.values()) {
+        nanos.put(stage, new LongAdder());
+        errors.put(stage, new LongAdder());
+      }
+    }
+
+    @Override
+    public void onRecord(int chars) {
+      this.records.increment();
+      this.chars.add(chars);
+    }
+
+    @Override
+    public void onStage(Stage stage, long nanos) {
+      this.nanos.get(stage).add(nanos);
+    }
+
+    @Override
+    public void onError(Stage stage) {
+      this.errors.get(stage).increment();
+    }
+
+    @Override
+    public void onBackpressure(long nanos) {
+      backpressure.add(nanos);
+    }
+
+    public long records() {
+      return records.sum();
+    }
+
+    public long chars() {
+      return chars.sum();
+    }
+
+    public long nanos(Stage stage) {
+      return nanos.get(stage).sum();
+    }
+
+    public long errors(Stage stage) {
+      return errors.get(stage).sum();
+    }
+
+    public long errors() {
+      return errors.values().stream().mapToLong(LongAdder::sum).sum();
+    }
+
+    public long backpressureNanos() {
+      return backpressure.sum();
+    }
+
+    /**
+     * Records per second since the counter created.
+     */
+    public double recordsPerSecond() {
+      long elapsed = System.nanoTime() - start;
+      return elapsed <= 0 ? 0 : records() * (double) TimeUnit.SECONDS.toNanos(1) / elapsed;
+    }
+
+    @Override
+    public String toString() {
+      ToStringHelper helper = MoreObjects.toStringHelper(this)
+          .add("records", records())
+          .add("chars", chars())
+          .add("recordsPerSecond", recordsPerSecond());
+      for (Stage stage : Stage.values()) {
+        helper.add(stage.name().toLowerCase() + "Nanos", nanos(stage));
+      }
+      return helper
+          .add("errors", errors())
+          .add("backpressureNanos", backpressureNanos())
+          .toString();
+    }
+  }
+}
@@ -0,0 +1,219 @@
+package xdean.csv;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+import com.google.common.base.MoreObjects;
+
+/**
+ * Sampling profiler of column parsing. One of every {@link #interval()} rows is sampled, the time
+ * and allocation of parsing each column of the sampled rows are recorded. Parse failures are
+ * counted for all rows.
+ *
+ * Allocation is measured by {@code com.sun.management.ThreadMXBean}. It's -1 if not supported.
+ *
+ * @author Dean Xu (XDean@github.com)
+ */
+public class CsvProfiler {
+  private static final ThreadMXBean THREAD = ManagementFactory.getThreadMXBean();
+  private static final boolean ALLOCATION = THREAD instanceof com.sun.management.ThreadMXBean &&
+      ((com.sun.management.ThreadMXBean) THREAD).isThreadAllocatedMemorySupported() &&
+      ((com.sun.management.ThreadMXBean) THREAD).isThreadAllocatedMemoryEnabled();
+
+  /**
+   * Create profiler who samples one of every interval rows.
+   */
+  public static CsvProfiler sampling(int interval) {
+    if (interval <= 0) {
+      throw new IllegalArgumentException("Interval must be positive: " + interval);
+    }
+    return new CsvProfiler(interval);
+  }
+
+  private final int interval;
+  private final LongAdder rows = new LongAdder();
+  private final Map<String, Stats> stats = new ConcurrentHashMap<>();
+  private final ThreadLocal<Probe> probes = ThreadLocal.withInitial(Probe::new);
+
+  protected CsvProfiler(int interval) {
+    this.interval = interval;
+  }
+
+  public int interval() {
+    return interval;
+  }
+
+  /**
+   * Decide whether to sample the current row.
+   *
+   * @return the probe to measure the row's columns, or null if not sampled
+   */
+  public Probe sample() {
+    rows.increment();
+    if (interval == 1 || ThreadLocalRandom.current().nextInt(interval) == 0) {
+      return probes.get();
+    }
+    return null;
+  }
+
+  /**
+   * Count a parse failure of the column.
+   */
+  public void onFailure(CsvColumn<?> column) {
+    statsOf(column).failures.increment();
+  }
+
+  /**
+   * Get the report of columns, ranked by estimated total parse time in descending order.
+   */
+  public List<ColumnReport> report() {
+    long total = rows.sum();
+    return stats.entrySet().stream()
+        .map(e -> e.getValue().report(e.getKey(), total))
+        .sorted(Comparator.comparingDouble(ColumnReport::estimatedNanos).reversed())
+        .collect(Collectors.toList());
+  }
+
+  /**
+   * Clear all records.
+   */
+  public void reset() {
+    rows.reset();
+    stats.clear();
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder sb = new StringBuilder();
+    sb.append(String.format("%-20s %10s %14s %14s %10s%n", "column", "samples", "avg nanos", "avg bytes", "failures"));
+    for (ColumnReport r : report()) {
+      sb.append(String.format("%-20s %10d %14.1f %14.1f %10d%n", r.column, r.samples, r.averageNanos, r.averageBytes,
+          r.failures));
+    }
+    return sb.toString();
+  }
+
+  private Stats statsOf(CsvColumn<?> column) {
+    return stats.computeIfAbsent(column.name(), k -> new Stats());
+  }
+
+  private static long allocatedBytes() {
+    return ALLOCATION ? ((com.sun.management.ThreadMXBean) THREAD).getThreadAllocatedBytes(Thread.currentThread().getId())
+        : 0;
+  }
+
+  /**
+   * Per-thread measurement of a sampled row.
+   */
+  public final class Probe {
+    private long nanos;
+    private long bytes;
+
+    private Probe() {
+    }
+
+    /**
+     * Start measuring a column.
+     */
+    public void start() {
+      bytes = allocatedBytes();
+      nanos = System.nanoTime();
+    }
+
+    /**
+     * Stop measuring the column.
+     */
+    public void stop(CsvColumn<?> column) {
+      long time = System.nanoTime() - nanos;
+      long allocated = allocatedBytes() - bytes;
+      Stats s = statsOf(column);
+      s.samples.increment();
+      s.nanos.add(time);
+      s.bytes.add(allocated);
+    }
+  }
+
+  private static final class Stats {
+    final LongAdder samples = new LongAdder();
+    final LongAdder nanos = new LongAdder();
+    final LongAdder bytes = new LongAdder();
+    final LongAdder failures = new LongAdder();
+
+    ColumnReport report(String column, long rows) {
+      long count = samples.sum();
+      double averageNanos = count == 0 ? 0 : nanos.sum() / (double) count;
+      double averageBytes = !ALLOCATION ? -1 : count == 0 ? 0 : bytes.sum() / (double) count;
+      return new ColumnReport(column, count, averageNanos, averageBytes, averageNanos * rows, failures.sum());
+    }
+  }
+
+  /**
+   * Profile result of a column.
+   */
+  public static final class ColumnReport {
+    private final String column;
+    private final long samples;
+    private final double averageNanos;
+    private final double averageBytes;
+    private final double estimatedNanos;
+    private final long failures;
+
+    private ColumnReport(String column, long samples, double averageNanos, double averageBytes, double estimatedNanos,
+        long failures) {
+      this.column = column;
+      this.samples = samples;
+      this.averageNanos = averageNanos;
+      this.averageBytes = averageBytes;
+      this.estimatedNanos = estimatedNanos;
+      this.failures = failures;
+    }
+
+    public String column() {
+      return column;
+    }
+
+    public long samples() {
+      return samples;
+    }
+
+    public double averageNanos() {
+      return averageNanos;
+    }
+
+    /**
+     * Average allocated bytes, or -1 if not supported.
+     */
+    public double averageBytes() {
+      return averageBytes;
+    }
+
+    /**
+     * Estimated total parse time of all rows.
+     */
+    public double estimatedNanos() {
+      return estimatedNanos;
+    }
+
+    public long failures() {
+      return failures;
+    }
+
+    @Override
+    public String toString() {
+      return MoreObjects.toStringHelper(this)
+          .add("column", column)
+          .add("samples", samples)
+          .add("averageNanos", averageNanos)
+          .add("averageBytes", averageBytes)
+          .add("failures", failures)
+          .toString();
+    }
+  }
+}
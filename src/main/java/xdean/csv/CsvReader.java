@@ -1,16 +1,33 @@
 package xdean.csv;
 
+import static xdean.jex.util.lang.ExceptionUtil.uncheck;
+
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
 import java.io.Reader;
+import java.nio.charset.Charset;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
 import java.util.function.BiConsumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import javax.annotation.Nullable;
 
 import io.reactivex.Flowable;
+import io.reactivex.disposables.Disposable;
 import io.reactivex.functions.Function;
+import xdean.csv.io.CsvCheckpoint;
+import xdean.csv.io.CsvCheckpoint.Checkpointed;
+import xdean.csv.io.CsvRowIndex;
+import xdean.csv.io.CsvTail;
+import xdean.csv.io.LineDecoder;
 import xdean.fluent.Fluent;
 
 /**
@@ -35,7 +52,41 @@ public interface CsvReader<T> extends Fluent<CsvReader<T>> {
    * @return the {@code CsvReader<R>}
    */
   default <R> CsvReader<R> mapTo(Function<T, R> func) {
-    return lines -> from(lines).map(func);
+    CsvReader<T> origin = this;
+    return new CsvReader<R>() {
+      @Override
+      public Flowable<R> from(Flowable<String> lines) {
+        return origin.from(lines).map(func);
+      }
+
+      @Override
+      public Flowable<R> from(Path path) throws IOException {
+        return origin.from(path).map(func);
+      }
+
+      @Override
+      public Flowable<List<R>> fromBatched(Flowable<String> lines, int batchSize) {
+        return origin.fromBatched(lines, batchSize).map(this::mapBatch);
+      }
+
+      @Override
+      public Flowable<List<R>> fromBatched(Path path, int batchSize) throws IOException {
+        return origin.fromBatched(path, batchSize).map(this::mapBatch);
+      }
+
+      @Override
+      public Stream<R> stream(Path path) throws IOException, CsvException {
+        return origin.stream(path).map(t -> uncheck(() -> func.apply(t)));
+      }
+
+      private List<R> mapBatch(List<T> batch) throws Exception {
+        List<R> result = new ArrayList<>(batch.size());
+        for (T t : batch) {
+          result.add(func.apply(t));
+        }
+        return result;
+      }
+    };
   }
 
   /**
@@ -53,10 +104,29 @@ public interface CsvReader<T> extends Fluent<CsvReader<T>> {
   }
 
   /**
-   * Read from {@link InputStream}.
+   * Read from {@link InputStream} in default charset.
+   *
+   * @see #from(InputStream, Charset)
    */
   default Flowable<T> from(InputStream stream) {
-    return from(new InputStreamReader(stream));
+    return from(stream, Charset.defaultCharset());
+  }
+
+  /**
+   * Read from {@link InputStream} in the charset. The byte order mark is detected and overrides the
+   * charset.
+   *
+   * @see LineDecoder
+   */
+  default Flowable<T> from(InputStream stream, Charset charset) {
+    return from(Flowable.generate(() -> LineDecoder.of(stream, charset), (decoder, e) -> {
+      String line = decoder.readLine();
+      if (line == null) {
+        e.onComplete();
+      } else {
+        e.onNext(line);
+      }
+    }));
   }
 
   /**
@@ -74,6 +144,89 @@ public interface CsvReader<T> extends Fluent<CsvReader<T>> {
     }));
   }
 
+  /**
+   * Read from lines in batches. Each batch contains at most {@code batchSize} records, so that
+   * downstream operators run once per batch rather than once per record.
+   */
+  default Flowable<List<T>> fromBatched(Flowable<String> lines, int batchSize) {
+    return from(lines).buffer(batchSize);
+  }
+
+  /**
+   * Read file in batches. The file is closed when the flowable terminates or is cancelled.
+   *
+   * @see #fromBatched(Flowable, int)
+   */
+  default Flowable<List<T>> fromBatched(Path path, int batchSize) throws IOException {
+    return Flowable.using(() -> Files.newInputStream(path), in -> from(in).buffer(batchSize), InputStream::close);
+  }
+
+  /**
+   * Read file as {@link Stream}. The stream must be closed to close the file. Errors of rows are
+   * thrown by the terminal operation.
+   *
+   * @implNote The default implementation is sequential and blocks on {@link #from(Path)}.
+   */
+  default Stream<T> stream(Path path) throws IOException, CsvException {
+    Iterator<T> iterator = from(path).blockingIterable().iterator();
+    Stream<T> stream = StreamSupport.stream(
+        Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL), false);
+    return iterator instanceof Disposable ? stream.onClose(((Disposable) iterator)::dispose) : stream;
+  }
+
+  /**
+   * Read from the n-th (0-based) row of file to the end.
+   *
+   * @see #rows(Path, long, long)
+   */
+  default Flowable<T> fromRow(Path path, long n) throws IOException {
+    return rows(path, n, Long.MAX_VALUE);
+  }
+
+  /**
+   * Read rows in [from, to) (0-based) of file. The file's sparse row index will be loaded from or
+   * saved to {@link CsvRowIndex#pathOf(Path)}, so that it doesn't need to scan all preceding lines.
+   */
+  default Flowable<T> rows(Path path, long from, long to) throws IOException {
+    return from(CsvRowIndex.of(path).lines(path, from, to, Charset.defaultCharset()));
+  }
+
+  /**
+   * Read file with the checkpoint after each record.
+   *
+   * @see CsvCheckpoint
+   */
+  default Flowable<Checkpointed<T>> checkpointed(Path path) {
+    return checkpointed(path, null);
+  }
+
+  /**
+   * Read file from the checkpoint with the checkpoint after each record.
+   *
+   * @param from the checkpoint to resume from, null means from start
+   */
+  default Flowable<Checkpointed<T>> checkpointed(Path path, @Nullable CsvCheckpoint from) {
+    return CsvCheckpoint.read(this, path, from, Charset.defaultCharset());
+  }
+
+  /**
+   * Resume reading file from the checkpoint. It seeks to the checkpoint's offset directly.
+   */
+  default Flowable<T> from(Path path, CsvCheckpoint checkpoint) {
+    return checkpointed(path, checkpoint).map(Checkpointed::value);
+  }
+
+  /**
+   * Follow the growing file. New complete rows are emitted as the file grows and the flowable never
+   * completes unless error. Truncated or rotated file is read from start again with the same header.
+   *
+   * @param pollMillis the interval to check new rows
+   * @see CsvTail
+   */
+  default Flowable<T> follow(Path path, long pollMillis) {
+    return from(CsvTail.lines(path, pollMillis, Charset.defaultCharset()));
+  }
+
   /**
    * Bean related configuration.
    */
@@ -0,0 +1,40 @@
+package xdean.csv;
+
+import java.util.List;
+
+/**
+ * Push callback of tokenized records. Fields are passed as unquoted and unescaped chars, so that
+ * records can be parsed into user's own structures without creating any object.
+ *
+ * @apiNote The buffer is the tokenizer's input or its own buffer, both are reused. It must not be
+ *          modified and its content is only valid during the call.
+ * @author Dean Xu (XDean@github.com)
+ * @see CsvConfiguration#tokenize(java.io.Reader, CsvRecordHandler)
+ */
+@FunctionalInterface
+public interface CsvRecordHandler {
+  /**
+   * The header is read.
+   */
+  default void header(List<String> names) throws CsvException {
+  }
+
+  /**
+   * A record starts.
+   */
+  default void startRecord() throws CsvException {
+  }
+
+  /**
+   * A field of the current record.
+   *
+   * @param column the column index in the record
+   */
+  void field(int column, char[] buffer, int offset, int length) throws CsvException;
+
+  /**
+   * The current record ends.
+   */
+  default void endRecord() throws CsvException {
+  }
+}
@@ -1,5 +1,16 @@
 package xdean.csv;
 
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.TemporalAccessor;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.function.Function;
 
 import xdean.jex.util.lang.PrimitiveTypeUtil;
@@ -12,6 +23,14 @@ import xdean.jex.util.lang.PrimitiveTypeUtil;
  * @param <T> the value type.
  */
 public interface CsvValueFormatter<T> {
+  CsvValueFormatter<BigDecimal> BIG_DECIMAL = Helper.create(BigDecimal.class, BigDecimal::toString);
+  CsvValueFormatter<BigInteger> BIG_INTEGER = Helper.create(BigInteger.class,
+      v -> v.bitLength() < 64 ? Long.toString(v.longValue()) : v.toString());
+  CsvValueFormatter<LocalDate> LOCAL_DATE = Helper.create(LocalDate.class, JavaTime::format);
+  CsvValueFormatter<LocalDateTime> LOCAL_DATE_TIME = Helper.create(LocalDateTime.class, JavaTime::format);
+  CsvValueFormatter<Instant> INSTANT = Helper.create(Instant.class, JavaTime::format);
+  CsvValueFormatter<OffsetDateTime> OFFSET_DATE_TIME = Helper.create(OffsetDateTime.class, JavaTime::format);
+
   /**
    * Format the value to text.
    */
@@ -29,6 +48,51 @@ public interface CsvValueFormatter<T> {
     return create(clz, t -> t.toString());
   }
 
+  /**
+   * Get {@link CsvValueFormatter} for enum type. It writes the constant's name, which is
+   * precomputed by ordinal. The formatter is shared for each type.
+   */
+  @SuppressWarnings("unchecked")
+  static <T extends Enum<T>> CsvValueFormatter<T> forEnum(Class<T> clz) {
+    return (CsvValueFormatter<T>) Helper.ENUMS.get(clz);
+  }
+
+  /**
+   * Get default formatter from the value's type. Enum is formatted by {@link #forEnum(Class)}. If
+   * there is no default formatter, {@link #toString(Class)} will be used.
+   */
+  @SuppressWarnings({ "unchecked", "rawtypes" })
+  static <T> CsvValueFormatter<T> forType(Class<T> clz) {
+    CsvValueFormatter<?> formatter = Helper.DEFAULTS.get(clz);
+    if (formatter != null) {
+      return (CsvValueFormatter<T>) formatter;
+    } else if (clz.isEnum()) {
+      return forEnum((Class) clz);
+    } else {
+      return toString(clz);
+    }
+  }
+
+  /**
+   * Get {@link CsvValueFormatter} for java.time type by the {@link DateTimeFormatter} pattern.
+   *
+   * @throws CsvException if the type is not {@link LocalDate}, {@link LocalDateTime},
+   *           {@link Instant} or {@link OffsetDateTime}, or the pattern is invalid
+   */
+  static <T> CsvValueFormatter<T> forPattern(Class<T> clz, String pattern) throws CsvException {
+    DateTimeFormatter formatter = JavaTime.formatter(clz, pattern);
+    return create(clz, t -> formatter.format((TemporalAccessor) t));
+  }
+
+  /**
+   * Get default formatter from the value's type, or by the pattern if it's not empty.
+   *
+   * @see #forPattern(Class, String)
+   */
+  static <T> CsvValueFormatter<T> forType(Class<T> clz, String pattern) throws CsvException {
+    return pattern.isEmpty() ? forType(clz) : forPattern(clz, pattern);
+  }
+
   /**
    * Create {@code CsvValueFormatter<T>} from the {@code Function<T, String>}
    */
@@ -47,4 +111,22 @@ public interface CsvValueFormatter<T> {
       }
     };
   }
+
+  static class Helper {
+    private static final Map<Class<?>, CsvValueFormatter<?>> DEFAULTS = new HashMap<>();
+    private static final ClassValue<CsvValueFormatter<?>> ENUMS = new ClassValue<CsvValueFormatter<?>>() {
+      @Override
+      @SuppressWarnings({ "unchecked", "rawtypes" })
+      protected CsvValueFormatter<?> computeValue(Class<?> type) {
+        String[] names = Arrays.stream(type.getEnumConstants()).map(e -> ((Enum<?>) e).name()).toArray(String[]::new);
+        return CsvValueFormatter.create((Class) type, t -> names[((Enum<?>) t).ordinal()]);
+      }
+    };
+
+    private static <T> CsvValueFormatter<T> create(Class<T> clz, Function<T, String> function) {
+      CsvValueFormatter<T> formatter = CsvValueFormatter.create(clz, function);
+      DEFAULTS.put(clz, formatter);
+      return formatter;
+    }
+  }
 }
@@ -1,9 +1,19 @@
 package xdean.csv;
 
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.TemporalQuery;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.function.Function;
 
+import javax.annotation.Nullable;
+
 import xdean.jex.util.lang.PrimitiveTypeUtil;
 
 /**
@@ -19,6 +29,23 @@ public interface CsvValueParser<T> {
    */
   T parse(String text);
 
+  /**
+   * Parse the text to value without throwing exception for invalid text. Lenient reading uses it to
+   * detect bad cells cheaply.
+   *
+   * @return the value, or null if the text is invalid
+   * @apiNote Override it if invalid text is common and {@link #parse(String)} throws for it. Parser
+   *          who parses valid text to null can't distinguish invalid text by it.
+   */
+  @Nullable
+  default T tryParse(String text) {
+    try {
+      return parse(text);
+    } catch (RuntimeException e) {
+      return null;
+    }
+  }
+
   /**
    * The value type.
    */
@@ -47,17 +74,56 @@ public interface CsvValueParser<T> {
    * Default parsers.
    */
   CsvValueParser<String> STRING = Helper.create(String.class, v -> v);
-  CsvValueParser<Integer> INT = Helper.create(Integer.class, Integer::valueOf);
-  CsvValueParser<Long> LONG = Helper.create(Long.class, Long::valueOf);
-  CsvValueParser<Float> FLOAT = Helper.create(Float.class, Float::valueOf);
-  CsvValueParser<Double> DOUBLE = Helper.create(Double.class, Double::valueOf);
+  CsvValueParser<Integer> INT = Helper.create(Integer.class, Integer::valueOf, v -> {
+    long l = Helper.tryParseLong(v, Integer.MIN_VALUE, Integer.MAX_VALUE);
+    return l == Helper.INVALID_LONG ? null
+        : l == Helper.UNKNOWN_LONG ? Helper.tryParse(Integer::valueOf, v) : Integer.valueOf((int) l);
+  });
+  CsvValueParser<Long> LONG = Helper.create(Long.class, Long::valueOf, v -> {
+    long l = Helper.tryParseLong(v, Long.MIN_VALUE, Long.MAX_VALUE);
+    return l == Helper.INVALID_LONG ? null
+        : l == Helper.UNKNOWN_LONG ? Helper.tryParse(Long::valueOf, v) : Long.valueOf(l);
+  });
+  CsvValueParser<Float> FLOAT = Helper.create(Float.class, Float::valueOf,
+      v -> Helper.maybeFloating(v) ? Helper.tryParse(Float::valueOf, v) : null);
+  CsvValueParser<Double> DOUBLE = Helper.create(Double.class, Double::valueOf,
+      v -> Helper.maybeFloating(v) ? Helper.tryParse(Double::valueOf, v) : null);
   CsvValueParser<Boolean> BOOLEAN = Helper.create(Boolean.class, Boolean::valueOf);
+  CsvValueParser<BigInteger> BIG_INTEGER = Helper.create(BigInteger.class, v -> {
+    long l = Helper.tryParseLong(v, Long.MIN_VALUE, Long.MAX_VALUE);
+    return l == Helper.INVALID_LONG || l == Helper.UNKNOWN_LONG ? new BigInteger(v) : BigInteger.valueOf(l);
+  }, v -> {
+    long l = Helper.tryParseLong(v, Long.MIN_VALUE, Long.MAX_VALUE);
+    return l == Helper.INVALID_LONG ? null
+        : l == Helper.UNKNOWN_LONG ? Helper.tryParse(BigInteger::new, v) : BigInteger.valueOf(l);
+  });
+  CsvValueParser<BigDecimal> BIG_DECIMAL = Helper.fastPath(BigDecimal.class, Helper::parseDecimal, BigDecimal::new);
+  CsvValueParser<LocalDate> LOCAL_DATE = Helper.fastPath(LocalDate.class, JavaTime::parseDate, LocalDate::parse);
+  CsvValueParser<LocalDateTime> LOCAL_DATE_TIME = Helper.fastPath(LocalDateTime.class, JavaTime::parseDateTime,
+      LocalDateTime::parse);
+  CsvValueParser<Instant> INSTANT = Helper.fastPath(Instant.class, JavaTime::parseInstant, Instant::parse);
+  CsvValueParser<OffsetDateTime> OFFSET_DATE_TIME = Helper.fastPath(OffsetDateTime.class,
+      JavaTime::parseOffsetDateTime, OffsetDateTime::parse);
 
   /**
    * Inner helper class.
    */
   static class Helper {
     private static final Map<Class<?>, CsvValueParser<?>> DEFAULTS = new HashMap<>();
+    private static final ClassValue<CsvValueParser<?>> ENUMS = new ClassValue<CsvValueParser<?>>() {
+      @Override
+      @SuppressWarnings({ "unchecked", "rawtypes" })
+      protected CsvValueParser<?> computeValue(Class<?> type) {
+        EnumLookup lookup = EnumLookup.of((Class) type);
+        return of((Class) type, lookup::parse, lookup::get);
+      }
+    };
+    /**
+     * Results of {@link #tryParseLong(String, long, long)} for invalid text and text needs slow
+     * path. Decimal with at most 18 digits can't be them.
+     */
+    private static final long INVALID_LONG = Long.MIN_VALUE;
+    private static final long UNKNOWN_LONG = Long.MIN_VALUE + 1;
 
     private static <T> CsvValueParser<T> create(Class<T> clz, Function<String, T> function) {
       CsvValueParser<T> parser = CsvValueParser.create(clz, function);
@@ -67,13 +133,181 @@ public interface CsvValueParser<T> {
       }
       return parser;
     }
+
+    private static <T> CsvValueParser<T> create(Class<T> clz, Function<String, T> function,
+        Function<String, T> tryFunction) {
+      CsvValueParser<T> parser = of(clz, function, tryFunction);
+      DEFAULTS.put(clz, parser);
+      if (PrimitiveTypeUtil.isWrapper(clz)) {
+        DEFAULTS.put(PrimitiveTypeUtil.toPrimitive(clz), parser);
+      }
+      return parser;
+    }
+
+    private static <T> CsvValueParser<T> of(Class<T> clz, Function<String, T> function,
+        Function<String, T> tryFunction) {
+      return new CsvValueParser<T>() {
+        @Override
+        public T parse(String value) {
+          return function.apply(value);
+        }
+
+        @Override
+        public T tryParse(String text) {
+          return tryFunction.apply(text);
+        }
+
+        @Override
+        public Class<T> type() {
+          return clz;
+        }
+      };
+    }
+
+    /**
+     * Create parser who tries the fast function first and falls back to the slow function if the
+     * fast one returns null.
+     */
+    private static <T> CsvValueParser<T> fastPath(Class<T> clz, Function<String, T> fast, Function<String, T> slow) {
+      Function<String, T> function = v -> {
+        T value = fast.apply(v);
+        return value == null ? slow.apply(v) : value;
+      };
+      return create(clz, function, v -> tryParse(function, v));
+    }
+
+    private static <T> T tryParse(Function<String, T> function, String text) {
+      try {
+        return function.apply(text);
+      } catch (RuntimeException e) {
+        return null;
+      }
+    }
+
+    /**
+     * Parse ASCII decimal integer in [min, max] without exception.
+     *
+     * @return the value, {@link #INVALID_LONG} or {@link #UNKNOWN_LONG} if the text has non-ASCII
+     *         character or more than 18 digits
+     */
+    private static long tryParseLong(String text, long min, long max) {
+      int length = text.length();
+      if (length == 0) {
+        return INVALID_LONG;
+      }
+      char first = text.charAt(0);
+      boolean negative = first == '-';
+      int i = negative || first == '+' ? 1 : 0;
+      if (i == length) {
+        return INVALID_LONG;
+      }
+      long result = 0;
+      for (int start = i; i < length; i++) {
+        char c = text.charAt(i);
+        if (c < '0' || c > '9') {
+          return c < 128 ? INVALID_LONG : UNKNOWN_LONG;
+        } else if (i - start == 18) {
+          return UNKNOWN_LONG;
+        }
+        result = result * 10 + (c - '0');
+      }
+      result = negative ? -result : result;
+      return result < min || result > max ? INVALID_LONG : result;
+    }
+
+    /**
+     * Parse plain ASCII decimal with at most 18 digits by its unscaled long value.
+     *
+     * @return the value, or null if the text needs slow path (more digits, exponent, non-ASCII
+     *         digits or invalid text)
+     */
+    @Nullable
+    private static BigDecimal parseDecimal(String text) {
+      int length = text.length();
+      if (length == 0) {
+        return null;
+      }
+      char first = text.charAt(0);
+      boolean negative = first == '-';
+      int i = negative || first == '+' ? 1 : 0;
+      long unscaled = 0;
+      int digits = 0;
+      int point = -1;
+      for (; i < length; i++) {
+        char c = text.charAt(i);
+        if (c >= '0' && c <= '9') {
+          if (++digits > 18) {
+            return null;
+          }
+          unscaled = unscaled * 10 + (c - '0');
+        } else if (c == '.' && point == -1) {
+          point = i;
+        } else {
+          return null;
+        }
+      }
+      if (digits == 0) {
+        return null;
+      }
+      return BigDecimal.valueOf(negative ? -unscaled : unscaled, point == -1 ? 0 : length - point - 1);
+    }
+
+    /**
+     * Quick check if the text may be a floating number. Texts without any digit can only be NaN or
+     * Infinity.
+     */
+    private static boolean maybeFloating(String text) {
+      for (int i = 0; i < text.length(); i++) {
+        char c = text.charAt(i);
+        if (c >= '0' && c <= '9') {
+          return true;
+        }
+      }
+      return text.contains("NaN") || text.contains("Infinity");
+    }
   }
 
   /**
-   * Get {@link CsvValueParser} for enum type.
+   * Get {@link CsvValueParser} for enum type. The text is matched with constant names by a table
+   * built once per enum type. The parser is cached per enum type.
    */
+  @SuppressWarnings("unchecked")
   static <T extends Enum<T>> CsvValueParser<T> forEnum(Class<T> clz) {
-    return CsvValueParser.create(clz, v -> Enum.valueOf(clz, v));
+    return (CsvValueParser<T>) Helper.ENUMS.get(clz);
+  }
+
+  /**
+   * Get {@link CsvValueParser} for enum type with additional aliases.
+   *
+   * @param ignoreCase match constant names and aliases ignoring case
+   * @param aliases alias texts of constants
+   * @throws CsvException if a name or an alias is ambiguous
+   */
+  static <T extends Enum<T>> CsvValueParser<T> forEnum(Class<T> clz, boolean ignoreCase, Map<String, T> aliases)
+      throws CsvException {
+    EnumLookup<T> lookup = EnumLookup.of(clz, ignoreCase, aliases);
+    return Helper.of(clz, lookup::parse, lookup::get);
+  }
+
+  /**
+   * Get {@link CsvValueParser} for java.time type by the {@link DateTimeFormatter} pattern.
+   *
+   * @throws CsvException if the type is not {@link LocalDate}, {@link LocalDateTime},
+   *           {@link Instant} or {@link OffsetDateTime}, or the pattern is invalid
+   */
+  static <T> CsvValueParser<T> forPattern(Class<T> clz, String pattern) throws CsvException {
+    DateTimeFormatter formatter = JavaTime.formatter(clz, pattern);
+    TemporalQuery<T> query = JavaTime.query(clz);
+    return CsvValueParser.create(clz, v -> formatter.parse(v, query));
+  }
+
+  /**
+   * Get default parser from the value's type, or by the pattern if it's not empty.
+   *
+   * @see #forPattern(Class, String)
+   */
+  static <T> CsvValueParser<? extends T> forType(Class<T> clz, String pattern) throws CsvException {
+    return pattern.isEmpty() ? forType(clz) : forPattern(clz, pattern);
   }
 
   /**
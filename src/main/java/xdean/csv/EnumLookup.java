@@ -0,0 +1,120 @@
+package xdean.csv;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import javax.annotation.Nullable;
+
+/**
+ * Lookup table from text to enum constant, built once per enum class. Keys are bucketed by length
+ * so that a lookup only compares the text with keys of the same length.
+ *
+ * @author Dean Xu (XDean@github.com)
+ */
+final class EnumLookup<T extends Enum<T>> {
+  private static final ClassValue<EnumLookup<?>> EXACT = new ClassValue<EnumLookup<?>>() {
+    @Override
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    protected EnumLookup<?> computeValue(Class<?> type) {
+      return new EnumLookup(type, false, names((Class) type));
+    }
+  };
+
+  /**
+   * Get the case-sensitive lookup of constant names.
+   */
+  @SuppressWarnings("unchecked")
+  static <T extends Enum<T>> EnumLookup<T> of(Class<T> type) {
+    return (EnumLookup<T>) EXACT.get(type);
+  }
+
+  /**
+   * Create lookup of constant names and the aliases.
+   *
+   * @throws CsvException if two keys are the same
+   */
+  static <T extends Enum<T>> EnumLookup<T> of(Class<T> type, boolean ignoreCase, Map<String, T> aliases)
+      throws CsvException {
+    Map<String, T> keys = names(type);
+    for (Entry<String, T> e : aliases.entrySet()) {
+      CsvException.assertTrue(keys.putIfAbsent(e.getKey(), e.getValue()) == null, "Duplicated enum key: %s",
+          e.getKey());
+    }
+    EnumLookup<T> lookup = new EnumLookup<>(type, ignoreCase, keys);
+    if (ignoreCase) {
+      for (String key : keys.keySet()) {
+        CsvException.assertTrue(lookup.get(key) == keys.get(key), "Duplicated enum key ignoring case: %s", key);
+      }
+    }
+    return lookup;
+  }
+
+  private static <T extends Enum<T>> Map<String, T> names(Class<T> type) {
+    Map<String, T> names = new LinkedHashMap<>();
+    for (T t : type.getEnumConstants()) {
+      names.put(t.name(), t);
+    }
+    return names;
+  }
+
+  private final Class<T> type;
+  private final boolean ignoreCase;
+  private final String[][] keys;
+  private final Object[][] values;
+
+  private EnumLookup(Class<T> type, boolean ignoreCase, Map<String, T> entries) {
+    this.type = type;
+    this.ignoreCase = ignoreCase;
+    int maxLength = entries.keySet().stream().mapToInt(String::length).max().orElse(0);
+    List<List<Entry<String, T>>> buckets = new ArrayList<>();
+    for (int i = 0; i <= maxLength; i++) {
+      buckets.add(new ArrayList<>());
+    }
+    entries.entrySet().forEach(e -> buckets.get(e.getKey().length()).add(e));
+    this.keys = new String[maxLength + 1][];
+    this.values = new Object[maxLength + 1][];
+    for (int i = 0; i <= maxLength; i++) {
+      List<Entry<String, T>> bucket = buckets.get(i);
+      keys[i] = bucket.stream().map(Entry::getKey).toArray(String[]::new);
+      values[i] = bucket.stream().map(Entry::getValue).toArray();
+    }
+  }
+
+  /**
+   * Get the constant of the text.
+   *
+   * @return the constant or null if not found
+   */
+  @Nullable
+  @SuppressWarnings("unchecked")
+  T get(String text) {
+    int length = text.length();
+    if (length >= keys.length) {
+      return null;
+    }
+    String[] bucket = keys[length];
+    for (int i = 0; i < bucket.length; i++) {
+      String key = bucket[i];
+      if (ignoreCase ? key.regionMatches(true, 0, text, 0, length) : key.equals(text)) {
+        return (T) values[length][i];
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Get the constant of the text.
+   *
+   * @throws IllegalArgumentException if not found
+   */
+  T parse(String text) {
+    T t = get(text);
+    if (t == null) {
+      throw new IllegalArgumentException("No enum constant " + type.getCanonicalName() + "." + text);
+    }
+    return t;
+  }
+}
@@ -0,0 +1,252 @@
+package xdean.csv;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.TemporalQuery;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.annotation.Nullable;
+
+/**
+ * Support of java.time types. ISO-8601 texts of fixed layouts are parsed and formatted by hand
+ * without {@link DateTimeFormatter}. Formatters of custom patterns are cached.
+ *
+ * Supported layouts are {@code yyyy-MM-dd} and {@code yyyy-MM-ddTHH:mm[:ss[.fffffffff]]}, followed
+ * by {@code Z} or {@code +HH:mm} for offset types. Parse methods return null for other layouts, so
+ * that the caller can fall back to the JDK parser.
+ *
+ * @author Dean Xu (XDean@github.com)
+ */
+final class JavaTime {
+  private static final int[] POW10 = { 1, 10, 100, 1000, 10000, 100000, 1000000, 10000000, 100000000, 1000000000 };
+
+  private static final Map<Class<?>, TemporalQuery<?>> QUERIES = new HashMap<>();
+  private static final Map<String, DateTimeFormatter> FORMATTERS = new ConcurrentHashMap<>();
+
+  static {
+    QUERIES.put(LocalDate.class, LocalDate::from);
+    QUERIES.put(LocalDateTime.class, LocalDateTime::from);
+    QUERIES.put(Instant.class, Instant::from);
+    QUERIES.put(OffsetDateTime.class, OffsetDateTime::from);
+  }
+
+  private JavaTime() {
+  }
+
+  /**
+   * Get the cached formatter of the pattern for the type. Instant is formatted in UTC if the
+   * pattern has no zone.
+   *
+   * @throws CsvException if the type is not supported or the pattern is invalid
+   */
+  static DateTimeFormatter formatter(Class<?> type, String pattern) throws CsvException {
+    CsvException.assertTrue(QUERIES.containsKey(type), "Pattern is not supported for %s.", type);
+    DateTimeFormatter formatter;
+    try {
+      formatter = FORMATTERS.computeIfAbsent(pattern, DateTimeFormatter::ofPattern);
+    } catch (IllegalArgumentException e) {
+      throw new CsvException("Invalid pattern: " + pattern, e);
+    }
+    return type == Instant.class && formatter.getZone() == null ? formatter.withZone(ZoneOffset.UTC) : formatter;
+  }
+
+  /**
+   * Get the query to parse the type.
+   */
+  @SuppressWarnings("unchecked")
+  static <T> TemporalQuery<T> query(Class<T> type) {
+    return (TemporalQuery<T>) QUERIES.get(type);
+  }
+
+  /**
+   * @throws java.time.DateTimeException if the layout matches but the value is out of range
+   */
+  @Nullable
+  static LocalDate parseDate(String text) {
+    return text.length() == 10 ? date(text) : null;
+  }
+
+  @Nullable
+  static LocalDateTime parseDateTime(String text) {
+    return dateTime(text, text.length());
+  }
+
+  @Nullable
+  static OffsetDateTime parseOffsetDateTime(String text) {
+    int end = offsetStart(text);
+    if (end == -1) {
+      return null;
+    }
+    LocalDateTime local = dateTime(text, end);
+    ZoneOffset offset = offset(text, end);
+    return local == null || offset == null ? null : OffsetDateTime.of(local, offset);
+  }
+
+  @Nullable
+  static Instant parseInstant(String text) {
+    int end = text.length() - 1;
+    if (end < 0 || text.charAt(end) != 'Z') {
+      return null;
+    }
+    LocalDateTime local = dateTime(text, end);
+    return local == null ? null : local.toInstant(ZoneOffset.UTC);
+  }
+
+  static String format(LocalDate date) {
+    int year = date.getYear();
+    if (year < 0 || year > 9999) {
+      return date.toString();
+    }
+    char[] cs = new char[10];
+    date(cs, year, date.getMonthValue(), date.getDayOfMonth());
+    return new String(cs);
+  }
+
+  /**
+   * Format with seconds always present, so that the text is also valid for {@link Instant#parse}.
+   */
+  static String format(LocalDateTime dateTime) {
+    return format(dateTime, null);
+  }
+
+  static String format(OffsetDateTime dateTime) {
+    return format(dateTime.toLocalDateTime(), dateTime.getOffset().getId());
+  }
+
+  static String format(Instant instant) {
+    return format(LocalDateTime.ofEpochSecond(instant.getEpochSecond(), instant.getNano(), ZoneOffset.UTC), "Z");
+  }
+
+  private static String format(LocalDateTime dateTime, @Nullable String suffix) {
+    int year = dateTime.getYear();
+    if (year < 0 || year > 9999) {
+      String text = DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(dateTime);
+      return suffix == null ? text : text + suffix;
+    }
+    int nano = dateTime.getNano();
+    int fraction = nano == 0 ? 0 : nano % 1_000_000 == 0 ? 3 : nano % 1000 == 0 ? 6 : 9;
+    int length = 19 + (fraction == 0 ? 0 : fraction + 1);
+    char[] cs = new char[length + (suffix == null ? 0 : suffix.length())];
+    date(cs, year, dateTime.getMonthValue(), dateTime.getDayOfMonth());
+    cs[10] = 'T';
+    digits(cs, 11, dateTime.getHour(), 2);
+    cs[13] = ':';
+    digits(cs, 14, dateTime.getMinute(), 2);
+    cs[16] = ':';
+    digits(cs, 17, dateTime.getSecond(), 2);
+    if (fraction > 0) {
+      cs[19] = '.';
+      digits(cs, 20, nano / POW10[9 - fraction], fraction);
+    }
+    if (suffix != null) {
+      suffix.getChars(0, suffix.length(), cs, length);
+    }
+    return new String(cs);
+  }
+
+  private static LocalDate date(String text) {
+    if (text.charAt(4) != '-' || text.charAt(7) != '-') {
+      return null;
+    }
+    int year = digits(text, 0, 4);
+    int month = digits(text, 5, 2);
+    int day = digits(text, 8, 2);
+    return year < 0 || month < 0 || day < 0 ? null : LocalDate.of(year, month, day);
+  }
+
+  private static LocalDateTime dateTime(String text, int end) {
+    if (end < 16 || text.charAt(4) != '-' || text.charAt(7) != '-' || text.charAt(10) != 'T' ||
+        text.charAt(13) != ':') {
+      return null;
+    }
+    int year = digits(text, 0, 4);
+    int month = digits(text, 5, 2);
+    int day = digits(text, 8, 2);
+    int hour = digits(text, 11, 2);
+    int minute = digits(text, 14, 2);
+    if (year < 0 || month < 0 || day < 0 || hour < 0 || minute < 0) {
+      return null;
+    }
+    int second = 0;
+    int nano = 0;
+    if (end > 16) {
+      if (end < 19 || text.charAt(16) != ':' || (second = digits(text, 17, 2)) < 0) {
+        return null;
+      }
+      if (end > 19) {
+        int fraction = end - 20;
+        if (text.charAt(19) != '.' || fraction < 1 || fraction > 9 || (nano = digits(text, 20, fraction)) < 0) {
+          return null;
+        }
+        nano *= POW10[9 - fraction];
+      }
+    }
+    return LocalDateTime.of(year, month, day, hour, minute, second, nano);
+  }
+
+  /**
+   * @return the start index of the offset, or -1 if no offset in supported layout
+   */
+  private static int offsetStart(String text) {
+    int length = text.length();
+    if (length > 0 && text.charAt(length - 1) == 'Z') {
+      return length - 1;
+    }
+    if (length > 6 && text.charAt(length - 3) == ':') {
+      char sign = text.charAt(length - 6);
+      if (sign == '+' || sign == '-') {
+        return length - 6;
+      }
+    }
+    return -1;
+  }
+
+  private static ZoneOffset offset(String text, int start) {
+    if (text.charAt(start) == 'Z') {
+      return ZoneOffset.UTC;
+    }
+    int hours = digits(text, start + 1, 2);
+    int minutes = digits(text, start + 4, 2);
+    if (hours < 0 || minutes < 0) {
+      return null;
+    }
+    return text.charAt(start) == '+' ? ZoneOffset.ofHoursMinutes(hours, minutes)
+        : ZoneOffset.ofHoursMinutes(-hours, -minutes);
+  }
+
+  /**
+   * @return the non-negative value, or -1 if any char is not ASCII digit
+   */
+  private static int digits(String text, int from, int count) {
+    int result = 0;
+    for (int i = from; i < from + count; i++) {
+      char c = text.charAt(i);
+      if (c < '0' || c > '9') {
+        return -1;
+      }
+      result = result * 10 + (c - '0');
+    }
+    return result;
+  }
+
+  private static void date(char[] cs, int year, int month, int day) {
+    digits(cs, 0, year, 4);
+    cs[4] = '-';
+    digits(cs, 5, month, 2);
+    cs[7] = '-';
+    digits(cs, 8, day, 2);
+  }
+
+  private static void digits(char[] cs, int from, int value, int count) {
+    for (int i = from + count - 1; i >= from; i--) {
+      cs[i] = (char) ('0' + value % 10);
+      value /= 10;
+    }
+  }
+}
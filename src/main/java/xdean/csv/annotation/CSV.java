@@ -12,6 +12,7 @@ import java.lang.annotation.Target;
 
 import org.springframework.core.annotation.AliasFor;
 
+import xdean.csv.CsvColumn;
 import xdean.csv.CsvValueFormatter;
 import xdean.csv.CsvValueParser;
 
@@ -67,21 +68,28 @@ public @interface CSV {
   Class<?> type() default void.class;
 
   /**
-   * The parser to read value. The default value is from {@link CsvValueParser#forType(Class)} by
-   * {@link #type()}.
+   * The parser to read value. The default value is from
+   * {@link CsvValueParser#forType(Class, String)} by {@link #type()} and {@link #pattern()}.
    */
   @OnlyForRead
   @SuppressWarnings("rawtypes")
   Class<? extends CsvValueParser> parser() default CsvValueParser.class;
 
   /**
-   * The parser to write value. The default value is from {@link CsvValueFormatter#toString(Class)}
-   * by {@link #type()}.
+   * The parser to write value. The default value is from
+   * {@link CsvValueFormatter#forType(Class, String)} by {@link #type()} and {@link #pattern()}.
    */
   @OnlyForWrite
   @SuppressWarnings("rawtypes")
   Class<? extends CsvValueFormatter> formatter() default CsvValueFormatter.class;
 
+  /**
+   * The {@link java.time.format.DateTimeFormatter} pattern for java.time column, e.g.
+   * {@code "yyyy/MM/dd"}. Empty means ISO-8601. It's ignored if {@link #parser()} or
+   * {@link #formatter()} is specified.
+   */
+  String pattern() default "";
+
   /**
    * If optional, the column's absence will not lead error.
    */
@@ -95,4 +103,13 @@ public @interface CSV {
   @OnlyForRead
   String defaultValue() default "defaultValue";
 
+  /**
+   * The dictionary size for low-cardinality column. Equal values share the same String instance
+   * until the number of distinct values exceeds the size. 0 means no dictionary.
+   *
+   * @see CsvColumn#dictionary()
+   */
+  @OnlyForRead
+  int dictionary() default 0;
+
 }
\ No newline at end of file
@@ -1,25 +1,27 @@
 package xdean.csv.fluent;
 
-import static xdean.jex.util.lang.ExceptionUtil.throwAsUncheck;
-
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
-import java.util.concurrent.atomic.AtomicLong;
 import java.util.regex.Pattern;
 
+import javax.annotation.Nullable;
 import javax.annotation.concurrent.Immutable;
 
-import org.reactivestreams.Subscription;
-
 import com.google.common.collect.BiMap;
 import com.google.common.collect.ImmutableBiMap;
 import com.google.common.escape.Escaper;
 import com.google.common.escape.Escapers;
 
-import io.reactivex.Flowable;
-import io.reactivex.FlowableSubscriber;
+import xdean.csv.CsvByteRecordHandler;
 import xdean.csv.CsvConfiguration;
 import xdean.csv.CsvException;
+import xdean.csv.CsvRecordHandler;
 import xdean.jex.log.Logable;
 
 @Immutable
@@ -33,6 +35,12 @@ public class Configuration implements Logable {
       .put('\'', '\'')
       .put('\\', '\\')
       .build();
+  private static final char[] UNESCAPE = new char[128];
+  private static final int BUFFER_SIZE = 8 * 1024;
+
+  static {
+    ESCAPE_CHARS.forEach((literal, escape) -> UNESCAPE[literal] = escape);
+  }
 
   public final char escaper;
   public final char quoter;
@@ -42,14 +50,34 @@ public class Configuration implements Logable {
   public final String regexSplitor;
 
   private final Escaper es;
+  /**
+   * Quoter and escaper used by the tokenizer. They are the splitor if disabled, so that the
+   * tokenizer checks them without knowing the dialect.
+   */
+  private final char quoteChar;
+  private final char escapeChar;
+  private final StructuralScanner scanner;
+  private final boolean vectorized;
 
-  private Configuration(char escaper, char quoter, char splitor, boolean ignoreLeadingSpace) {
+  private Configuration(char escaper, char quoter, char splitor, boolean ignoreLeadingSpace, boolean vectorize) {
     this.escaper = escaper;
     this.quoter = quoter;
     this.splitor = splitor;
     this.ignoreLeadingSpace = ignoreLeadingSpace;
     this.regexSplitor = Pattern.quote(splitor + "");
     this.es = initEscaper();
+    this.quoteChar = quoter == CsvConfiguration.NO_QUOTER ? splitor : quoter;
+    this.escapeChar = escaper == CsvConfiguration.NO_ESCAPER ? splitor : escaper;
+    StructuralScanner vector = vectorize ? StructuralScanner.vector(splitor, quoteChar, escapeChar) : null;
+    this.scanner = vector == null ? StructuralScanner.scalar(splitor, quoteChar, escapeChar) : vector;
+    this.vectorized = vector != null;
+  }
+
+  /**
+   * If the tokenizer scans structural characters by the Vector API.
+   */
+  public boolean vectorized() {
+    return vectorized;
   }
 
   public String escape(String string) {
@@ -57,23 +85,216 @@ public class Configuration implements Logable {
   }
 
   public List<String> split(String line) throws CsvException {
+    return split(line, null);
+  }
+
+  /**
+   * Split the line. The field will be got from the dictionary of its index if present.
+   */
+  List<String> split(String line, @Nullable StringDictionary[] dictionaries) throws CsvException {
+    List<String> result = new ArrayList<>();
     char[] array = line.toCharArray();
-    EscapeSplitSubscriber sub = new EscapeSplitSubscriber();
-    Flowable.range(0, array.length)
-        .map(i -> array[i])
-        .subscribe(sub);
-    if (sub.error != null) {
-      throw sub.error;
+    new Tokenizer(array.length).record(array, 0, array.length, (column, buffer, offset, length) -> {
+      StringDictionary dictionary = dictionaries != null && column < dictionaries.length ? dictionaries[column] : null;
+      result.add(dictionary == null ? new String(buffer, offset, length)
+          : dictionary.get(buffer, offset, length));
+    });
+    return result;
+  }
+
+  /**
+   * Push all records of the reader to the handler. Lines are terminated by '\n', '\r' or "\r\n".
+   * Comment lines are skipped and the first other line is the header.
+   *
+   * @return the count of records, excluding header
+   */
+  public long tokenize(Reader reader, CsvRecordHandler handler) throws IOException, CsvException {
+    Tokenizer tokenizer = new Tokenizer(BUFFER_SIZE);
+    char[] buffer = new char[BUFFER_SIZE];
+    int start = 0;
+    int limit = 0;
+    int scan = 0;
+    boolean skipLF = false;
+    boolean header = true;
+    long records = 0;
+    while (true) {
+      for (; scan < limit; scan++) {
+        char c = buffer[scan];
+        if (skipLF) {
+          skipLF = false;
+          if (c == '\n') {
+            start = scan + 1;
+            continue;
+          }
+        }
+        if (c == '\n' || c == '\r') {
+          skipLF = c == '\r';
+          if (line(tokenizer, buffer, start, scan, header, handler)) {
+            if (header) {
+              header = false;
+            } else {
+              records++;
+            }
+          }
+          start = scan + 1;
+        }
+      }
+      if (start > 0) {
+        System.arraycopy(buffer, start, buffer, 0, limit - start);
+        limit -= start;
+        scan -= start;
+        start = 0;
+      }
+      if (limit == buffer.length) {
+        buffer = Arrays.copyOf(buffer, buffer.length * 2);
+      }
+      int read = reader.read(buffer, limit, buffer.length - limit);
+      if (read < 0) {
+        break;
+      }
+      limit += read;
+    }
+    if (start < limit && line(tokenizer, buffer, start, limit, header, handler) && !header) {
+      records++;
     }
-    return sub.result;
+    return records;
+  }
+
+  /**
+   * Handle a line.
+   *
+   * @return false if it's comment
+   */
+  private boolean line(Tokenizer tokenizer, char[] buffer, int from, int to, boolean header,
+      CsvRecordHandler handler) throws CsvException {
+    if (to > from && buffer[from] == '#') {
+      return false;
+    }
+    if (header) {
+      handler.header(split(new String(buffer, from, to - from)));
+    } else {
+      handler.startRecord();
+      tokenizer.record(buffer, from, to, handler);
+      handler.endRecord();
+    }
+    return true;
+  }
+
+  /**
+   * Push all records of the stream to the handler without decoding the fields, so that the handler
+   * only decodes the fields it needs. Lines are terminated by '\n', '\r' or "\r\n". Comment lines
+   * are skipped and the first other line is the header. The UTF-8 byte order mark is skipped.
+   *
+   * @param charset the charset of the stream, must be ASCII compatible. The splitor, quoter and
+   *          escaper must be ASCII, so that they never match a byte of multi-byte character.
+   * @return the count of records, excluding header
+   */
+  public long tokenize(InputStream input, Charset charset, CsvByteRecordHandler handler)
+      throws IOException, CsvException {
+    CsvException.assertTrue(isAsciiCompatible(charset), "Charset %s is not ASCII compatible.", charset);
+    CsvException.assertTrue(splitor < 0x80 && quoteChar < 0x80 && escapeChar < 0x80,
+        "Splitor, quoter and escaper must be ASCII to tokenize bytes.");
+    ByteTokenizer tokenizer = new ByteTokenizer(BUFFER_SIZE);
+    byte[] buffer = new byte[BUFFER_SIZE];
+    int start = 0;
+    int limit = 0;
+    for (int read; limit < 3 && (read = input.read(buffer, limit, buffer.length - limit)) >= 0;) {
+      limit += read;
+    }
+    if (limit >= 3 && (buffer[0] & 0xFF) == 0xEF && (buffer[1] & 0xFF) == 0xBB && (buffer[2] & 0xFF) == 0xBF) {
+      start = 3;
+    } else if (limit >= 2 && ((buffer[0] & 0xFF) == 0xFE && (buffer[1] & 0xFF) == 0xFF ||
+        (buffer[0] & 0xFF) == 0xFF && (buffer[1] & 0xFF) == 0xFE)) {
+      throw new CsvException("UTF-16 byte order mark found, tokenize it by Reader instead.");
+    }
+    int scan = start;
+    boolean skipLF = false;
+    boolean header = true;
+    long records = 0;
+    while (true) {
+      for (; scan < limit; scan++) {
+        byte c = buffer[scan];
+        if (skipLF) {
+          skipLF = false;
+          if (c == '\n') {
+            start = scan + 1;
+            continue;
+          }
+        }
+        if (c == '\n' || c == '\r') {
+          skipLF = c == '\r';
+          if (line(tokenizer, buffer, start, scan, charset, header, handler)) {
+            if (header) {
+              header = false;
+            } else {
+              records++;
+            }
+          }
+          start = scan + 1;
+        }
+      }
+      if (start > 0) {
+        System.arraycopy(buffer, start, buffer, 0, limit - start);
+        limit -= start;
+        scan -= start;
+        start = 0;
+      }
+      if (limit == buffer.length) {
+        buffer = Arrays.copyOf(buffer, buffer.length * 2);
+      }
+      int read = input.read(buffer, limit, buffer.length - limit);
+      if (read < 0) {
+        break;
+      }
+      limit += read;
+    }
+    if (start < limit && line(tokenizer, buffer, start, limit, charset, header, handler) && !header) {
+      records++;
+    }
+    return records;
+  }
+
+  /**
+   * Handle a line of bytes.
+   *
+   * @return false if it's comment
+   */
+  private boolean line(ByteTokenizer tokenizer, byte[] buffer, int from, int to, Charset charset, boolean header,
+      CsvByteRecordHandler handler) throws CsvException {
+    if (to > from && buffer[from] == '#') {
+      return false;
+    }
+    if (header) {
+      handler.header(split(new String(buffer, from, to - from, charset)));
+    } else {
+      handler.startRecord();
+      tokenizer.record(buffer, from, to, handler);
+      handler.endRecord();
+    }
+    return true;
+  }
+
+  /**
+   * If all ASCII characters are encoded as the same single byte.
+   */
+  private static boolean isAsciiCompatible(Charset charset) {
+    byte[] ascii = new byte[128];
+    for (int i = 0; i < ascii.length; i++) {
+      ascii[i] = (byte) i;
+    }
+    return charset.canEncode() &&
+        Arrays.equals(new String(ascii, StandardCharsets.US_ASCII).getBytes(charset), ascii);
   }
 
   private Escaper initEscaper() {
+    if (escaper == CsvConfiguration.NO_ESCAPER) {
+      return Escapers.nullEscaper();
+    }
     Escapers.Builder builder = Escapers.builder();
     ESCAPE_CHARS.forEach((literal, escape) -> {
       builder.addEscape(escape, escaper + "" + literal);
     });
-    if (quoter != '\u0000') {
+    if (quoter != CsvConfiguration.NO_QUOTER) {
       builder.addEscape(quoter, escaper + "" + quoter);
     }
     builder.addEscape(splitor, escaper + "" + splitor);
@@ -91,95 +312,275 @@ public class Configuration implements Logable {
     QUOTE_ESCAPE
   }
 
-  private final class EscapeSplitSubscriber extends AtomicLong implements FlowableSubscriber<Character> {
-    private CsvException error;
-    private int index;
-    private EscapeType status = EscapeType.NORMAL;
-    private Subscription s;
-    private StringBuilder sb = new StringBuilder();
-    private List<String> result = new ArrayList<>();
+  /**
+   * Tokenizer of records. Fields without quoter and escaper are passed to the handler from the input
+   * buffer directly. Others are unquoted and unescaped into its own buffer, so an instance can't be
+   * shared by threads.
+   */
+  private final class Tokenizer {
+    private char[] field;
 
-    @Override
-    public void onSubscribe(Subscription s) {
-      this.s = s;
-      s.request(1);
+    Tokenizer(int capacity) {
+      this.field = new char[Math.max(capacity, 16)];
     }
 
-    @Override
-    public void onNext(Character t) {
-      char c = t.charValue();
-      switch (status) {
-      case NORMAL:
-        if (c == quoter) {
-          status = EscapeType.QUOTE;
-        } else if (c == escaper) {
-          status = EscapeType.ESCAPE;
-        } else if (c == splitor) {
-          result.add(sb.toString());
-          sb.setLength(0);
+    /**
+     * Tokenize the record in [from, to) of the buffer and push fields to the handler.
+     */
+    void record(char[] buffer, int from, int to, CsvRecordHandler handler) throws CsvException {
+      int column = 0;
+      int i = from;
+      while (true) {
+        int start = ignoreLeadingSpace ? skipSpace(buffer, i, to) : i;
+        int end = scanner.next(buffer, start, to);
+        if (end == to || buffer[end] == splitor) {
+          handler.field(column++, buffer, start, end - start);
+          if (end == to) {
+            return;
+          }
+          i = end + 1;
         } else {
-          append(c);
+          i = field(buffer, from, to, start, end, column++, handler);
+          if (i > to) {
+            return;
+          }
         }
-        break;
-      case QUOTE_ESCAPE:
-      case ESCAPE:
-        if (c == quoter || c == escaper || c == splitor) {
-          append(c);
-        } else if (ESCAPE_CHARS.containsKey(c)) {
-          append(ESCAPE_CHARS.get(c));
-        } else {
-          onError(new CsvException("'%s' cannot be escaped. (on position %d)", c, index));
+      }
+    }
+
+    /**
+     * Unquote and unescape the field starts at {@code start} whose first quoter or escaper is at
+     * {@code index}.
+     *
+     * @return the index after the field's splitor, or {@code to + 1} if it's the last field
+     */
+    private int field(char[] buffer, int from, int to, int start, int index, int column, CsvRecordHandler handler)
+        throws CsvException {
+      int length = append(0, buffer, start, index);
+      EscapeType status = EscapeType.NORMAL;
+      for (int i = index; i < to; i++) {
+        if (status == EscapeType.NORMAL || status == EscapeType.QUOTE) {
+          if (status == EscapeType.NORMAL && ignoreLeadingSpace && length == 0) {
+            i = skipSpace(buffer, i, to);
+          }
+          int next = scanner.next(buffer, i, to);
+          length = append(length, buffer, i, next);
+          i = next;
+          if (i == to) {
+            break;
+          }
         }
-        status = (status == EscapeType.QUOTE_ESCAPE ? EscapeType.QUOTE : EscapeType.NORMAL);
-        break;
+        char c = buffer[i];
+        switch (status) {
+        case NORMAL:
+          if (c == splitor) {
+            handler.field(column, field, 0, length);
+            return i + 1;
+          } else if (c == quoteChar) {
+            status = EscapeType.QUOTE;
+          } else if (c == escapeChar) {
+            status = EscapeType.ESCAPE;
+          }
+          break;
+        case QUOTE_ESCAPE:
+        case ESCAPE:
+          if (c == quoter || c == escaper || c == splitor) {
+            length = append(length, c);
+          } else if (c < UNESCAPE.length && UNESCAPE[c] != 0) {
+            length = append(length, UNESCAPE[c]);
+          } else {
+            throw new CsvException("'%s' cannot be escaped. (on position %d)", c, i - from);
+          }
+          status = (status == EscapeType.QUOTE_ESCAPE ? EscapeType.QUOTE : EscapeType.NORMAL);
+          break;
+        case QUOTE:
+          if (c == quoteChar) {
+            status = EscapeType.NORMAL;
+          } else if (c == escapeChar && escapeChar != splitor) {
+            status = EscapeType.QUOTE_ESCAPE;
+          } else {
+            length = append(length, c);
+          }
+          break;
+        }
+      }
+      switch (status) {
+      case NORMAL:
+        handler.field(column, field, 0, length);
+        return to + 1;
+      case ESCAPE:
+      case QUOTE_ESCAPE:
+        throw new CsvException("Can't end with escaper.");
       case QUOTE:
-        if (c == quoter) {
-          status = EscapeType.NORMAL;
-        } else if (c == escaper) {
-          status = EscapeType.QUOTE_ESCAPE;
-        } else {
-          append(c);
+      default:
+        throw new CsvException("The quote must close.");
+      }
+    }
+
+    private int skipSpace(char[] buffer, int from, int to) {
+      for (int i = from; i < to; i++) {
+        char c = buffer[i];
+        if (c > ' ' || c == splitor || c == quoteChar || c == escapeChar) {
+          return i;
         }
-        break;
       }
-      index++;
-      s.request(1);
+      return to;
+    }
+
+    private int append(int length, char[] buffer, int from, int to) {
+      int count = to - from;
+      if (length + count > field.length) {
+        field = Arrays.copyOf(field, Math.max(length + count, field.length * 2));
+      }
+      System.arraycopy(buffer, from, field, length, count);
+      return length + count;
+    }
+
+    private int append(int length, char c) {
+      if (length == field.length) {
+        field = Arrays.copyOf(field, length * 2);
+      }
+      field[length] = c;
+      return length + 1;
+    }
+  }
+
+  /**
+   * {@link Tokenizer} on bytes of ASCII compatible charset. All structural characters are ASCII, so
+   * fields can be found without decoding.
+   */
+  private final class ByteTokenizer {
+    private byte[] field;
+
+    ByteTokenizer(int capacity) {
+      this.field = new byte[Math.max(capacity, 16)];
     }
 
-    @Override
-    public void onError(Throwable e) {
-      s.cancel();
-      if (e instanceof CsvException) {
-        this.error = (CsvException) e;
-      } else {
-        throwAsUncheck(e);
+    /**
+     * Tokenize the record in [from, to) of the buffer and push fields to the handler.
+     */
+    void record(byte[] buffer, int from, int to, CsvByteRecordHandler handler) throws CsvException {
+      int column = 0;
+      int i = from;
+      while (true) {
+        int start = ignoreLeadingSpace ? skipSpace(buffer, i, to) : i;
+        int end = next(buffer, start, to);
+        if (end == to || buffer[end] == splitor) {
+          handler.field(column++, buffer, start, end - start);
+          if (end == to) {
+            return;
+          }
+          i = end + 1;
+        } else {
+          i = field(buffer, from, to, start, end, column++, handler);
+          if (i > to) {
+            return;
+          }
+        }
       }
     }
 
-    @Override
-    public void onComplete() {
+    /**
+     * @see Tokenizer#field(char[], int, int, int, int, int, CsvRecordHandler)
+     */
+    private int field(byte[] buffer, int from, int to, int start, int index, int column,
+        CsvByteRecordHandler handler) throws CsvException {
+      int length = append(0, buffer, start, index);
+      EscapeType status = EscapeType.NORMAL;
+      for (int i = index; i < to; i++) {
+        if (status == EscapeType.NORMAL || status == EscapeType.QUOTE) {
+          if (status == EscapeType.NORMAL && ignoreLeadingSpace && length == 0) {
+            i = skipSpace(buffer, i, to);
+          }
+          int next = next(buffer, i, to);
+          length = append(length, buffer, i, next);
+          i = next;
+          if (i == to) {
+            break;
+          }
+        }
+        byte c = buffer[i];
+        switch (status) {
+        case NORMAL:
+          if (c == splitor) {
+            handler.field(column, field, 0, length);
+            return i + 1;
+          } else if (c == quoteChar) {
+            status = EscapeType.QUOTE;
+          } else if (c == escapeChar) {
+            status = EscapeType.ESCAPE;
+          }
+          break;
+        case QUOTE_ESCAPE:
+        case ESCAPE:
+          if (c == quoter || c == escaper || c == splitor) {
+            length = append(length, c);
+          } else if (c >= 0 && UNESCAPE[c] != 0) {
+            length = append(length, (byte) UNESCAPE[c]);
+          } else {
+            throw new CsvException("'%s' cannot be escaped. (on position %d)", (char) (c & 0xFF), i - from);
+          }
+          status = (status == EscapeType.QUOTE_ESCAPE ? EscapeType.QUOTE : EscapeType.NORMAL);
+          break;
+        case QUOTE:
+          if (c == quoteChar) {
+            status = EscapeType.NORMAL;
+          } else if (c == escapeChar && escapeChar != splitor) {
+            status = EscapeType.QUOTE_ESCAPE;
+          } else {
+            length = append(length, c);
+          }
+          break;
+        }
+      }
       switch (status) {
       case NORMAL:
-        result.add(sb.toString());
-        break;
+        handler.field(column, field, 0, length);
+        return to + 1;
       case ESCAPE:
       case QUOTE_ESCAPE:
-        onError(new CsvException("Can't end with escaper."));
-        break;
+        throw new CsvException("Can't end with escaper.");
       case QUOTE:
-        onError(new CsvException("The quote must close."));
-        break;
+      default:
+        throw new CsvException("The quote must close.");
+      }
+    }
+
+    private int next(byte[] buffer, int from, int to) {
+      for (int i = from; i < to; i++) {
+        byte c = buffer[i];
+        if (c == splitor || c == quoteChar || c == escapeChar) {
+          return i;
+        }
+      }
+      return to;
+    }
+
+    private int skipSpace(byte[] buffer, int from, int to) {
+      for (int i = from; i < to; i++) {
+        int c = buffer[i] & 0xFF;
+        if (c > ' ' || c == splitor || c == quoteChar || c == escapeChar) {
+          return i;
+        }
       }
+      return to;
     }
 
-    private void append(char c) {
-      if (ignoreLeadingSpace &&
-          status == EscapeType.NORMAL &&
-          sb.length() == 0 &&
-          String.valueOf(c).trim().length() == 0) {
-        return;
+    private int append(int length, byte[] buffer, int from, int to) {
+      int count = to - from;
+      if (length + count > field.length) {
+        field = Arrays.copyOf(field, Math.max(length + count, field.length * 2));
       }
-      sb.append(c);
+      System.arraycopy(buffer, from, field, length, count);
+      return length + count;
+    }
+
+    private int append(int length, byte c) {
+      if (length == field.length) {
+        field = Arrays.copyOf(field, length * 2);
+      }
+      field[length] = c;
+      return length + 1;
     }
   }
 
@@ -188,6 +589,7 @@ public class Configuration implements Logable {
     private char quoter = CsvConfiguration.DEFAULT_QUOTER;
     private char splitor = CsvConfiguration.DEFAULT_SPLITOR;
     private boolean ignoreLeadingSpace = true;
+    private boolean vectorize = false;
 
     public Builder escaper(char escaper) {
       this.escaper = escaper;
@@ -209,8 +611,13 @@ public class Configuration implements Logable {
       return this;
     }
 
+    public Builder vectorize(boolean b) {
+      this.vectorize = b;
+      return this;
+    }
+
     public Configuration build() {
-      return new Configuration(escaper, quoter, splitor, ignoreLeadingSpace);
+      return new Configuration(escaper, quoter, splitor, ignoreLeadingSpace, vectorize);
     }
   }
 }
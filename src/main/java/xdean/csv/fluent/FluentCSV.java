@@ -2,24 +2,41 @@ package xdean.csv.fluent;
 
 import static xdean.csv.fluent.Util.findColumn;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
+import javax.annotation.Nullable;
+
 import org.springframework.core.annotation.AnnotationUtils;
 
 import io.reactivex.Flowable;
+import xdean.csv.CsvByteRecordHandler;
 import xdean.csv.CsvColumn;
 import xdean.csv.CsvConfiguration;
+import xdean.csv.CsvErrorPolicy;
+import xdean.csv.CsvErrorSink;
 import xdean.csv.CsvException;
+import xdean.csv.CsvMetrics;
+import xdean.csv.CsvProfiler;
 import xdean.csv.CsvReader;
 import xdean.csv.CsvReader.CsvBeanReader;
+import xdean.csv.CsvRecordHandler;
 import xdean.csv.CsvWriter;
 import xdean.csv.CsvWriter.CsvBeanWriter;
 import xdean.csv.annotation.CsvConfig;
+import xdean.csv.io.CsvKeyIndex;
+import xdean.csv.io.CsvRangeSeek;
+import xdean.csv.io.CsvZoneMap;
 import xdean.jex.log.Logable;
 
 public class FluentCSV implements CsvConfiguration, Logable {
@@ -30,6 +47,13 @@ public class FluentCSV implements CsvConfiguration, Logable {
 
   final List<CsvColumn<?>> columns = new ArrayList<>();
   final Configuration.Builder configuration = Configuration.builder();
+  boolean snapshot;
+  String snapshotVersion;
+  boolean reuse;
+  CsvErrorPolicy errorPolicy = CsvErrorPolicy.FAIL_FAST;
+  CsvErrorSink errorSink = CsvErrorSink.IGNORE;
+  CsvMetrics metrics = CsvMetrics.NONE;
+  CsvProfiler profiler;
 
   private FluentCSV() {
   }
@@ -63,6 +87,55 @@ public class FluentCSV implements CsvConfiguration, Logable {
     return this;
   }
 
+  @Override
+  public CsvConfiguration vectorize(boolean b) {
+    configuration.vectorize(b);
+    return this;
+  }
+
+  @Override
+  public CsvConfiguration snapshot(boolean b) {
+    snapshot = b;
+    return this;
+  }
+
+  @Override
+  public CsvConfiguration snapshot(String version) {
+    snapshot = true;
+    snapshotVersion = Objects.requireNonNull(version);
+    return this;
+  }
+
+  @Override
+  public CsvConfiguration reuse(boolean b) {
+    reuse = b;
+    return this;
+  }
+
+  @Override
+  public CsvConfiguration errorPolicy(CsvErrorPolicy policy) {
+    errorPolicy = Objects.requireNonNull(policy);
+    return this;
+  }
+
+  @Override
+  public CsvConfiguration errorSink(CsvErrorSink sink) {
+    errorSink = Objects.requireNonNull(sink);
+    return this;
+  }
+
+  @Override
+  public CsvConfiguration metrics(CsvMetrics metrics) {
+    this.metrics = Objects.requireNonNull(metrics);
+    return this;
+  }
+
+  @Override
+  public CsvConfiguration profiler(@Nullable CsvProfiler profiler) {
+    this.profiler = profiler;
+    return this;
+  }
+
   @Override
   public CsvConfiguration readConfig(Class<?> clz) {
     CsvConfig config = AnnotationUtils.getAnnotation(clz, CsvConfig.class);
@@ -108,6 +181,32 @@ public class FluentCSV implements CsvConfiguration, Logable {
     }
   }
 
+  @Override
+  public <K> CsvKeyIndex<K> keyIndex(Path csv, CsvColumn<K> key, Charset charset) throws IOException, CsvException {
+    return CsvKeyIndex.of(csv, configuration.build(), key, charset);
+  }
+
+  @Override
+  public <K extends Comparable<? super K>> CsvRangeSeek<K> sortedBy(Path csv, CsvColumn<K> key, Charset charset) {
+    return new CsvRangeSeek<>(csv, configuration.build(), key, charset);
+  }
+
+  @Override
+  public long tokenize(Reader reader, CsvRecordHandler handler) throws IOException, CsvException {
+    return configuration.build().tokenize(reader, handler);
+  }
+
+  @Override
+  public long tokenize(InputStream input, Charset charset, CsvByteRecordHandler handler)
+      throws IOException, CsvException {
+    return configuration.build().tokenize(input, charset, handler);
+  }
+
+  @Override
+  public CsvZoneMap zoneMap(Path csv, Charset charset, CsvColumn<?>... columns) throws IOException, CsvException {
+    return CsvZoneMap.of(csv, configuration.build(), charset, columns);
+  }
+
   @Override
   public CsvWriter<List<Object>> writeList() {
     return new FluentWriter(this).mapFrom(l -> {
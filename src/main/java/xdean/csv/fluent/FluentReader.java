@@ -2,14 +2,19 @@ package xdean.csv.fluent;
 
 import static java.lang.String.format;
 import static xdean.csv.fluent.Util.findColumn;
+import static xdean.jex.util.lang.ExceptionUtil.uncheck;
 import static xdean.jex.util.lang.PrimitiveTypeUtil.toWrapper;
 import static xdean.jex.util.task.TaskUtil.firstNonNull;
 
+import java.io.IOException;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.lang.reflect.Parameter;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -18,19 +23,35 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.BiConsumer;
 import java.util.function.Function;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import javax.annotation.Nullable;
 
 import org.springframework.core.annotation.AnnotationUtils;
 
+import com.google.common.base.Defaults;
+
 import io.reactivex.Flowable;
 import xdean.csv.CsvColumn;
+import xdean.csv.CsvErrorPolicy;
+import xdean.csv.CsvErrorSink;
 import xdean.csv.CsvException;
+import xdean.csv.CsvMetrics;
+import xdean.csv.CsvMetrics.Stage;
+import xdean.csv.CsvProfiler;
+import xdean.csv.CsvProfiler.Probe;
 import xdean.csv.CsvReader;
 import xdean.csv.CsvValueParser;
 import xdean.csv.annotation.CSV;
+import xdean.csv.fluent.Snapshot.Codec;
+import xdean.csv.io.LineDecoder;
+import xdean.csv.io.LineSpliterator;
 import xdean.jex.extra.function.ActionE2;
 import xdean.jex.log.Logable;
 import xdean.jex.util.reflect.AnnotationUtil;
@@ -39,29 +60,181 @@ import xdean.jex.util.string.StringUtil;
 
 public class FluentReader implements CsvReader<Map<CsvColumn<?>, Object>>, Logable {
 
+  private static final Map<CsvColumn<?>, Object> SKIPPED = Collections.emptyMap();
   private static final CSV DEFAULT_CSV_ANNO = AnnotationUtil.createAnnotationFromMap(CSV.class, Collections.emptyMap());
   private final List<CsvColumn<?>> columns;
   private final Configuration config;
+  private final boolean snapshot;
+  private final @Nullable String snapshotVersion;
+  private final CsvErrorPolicy errorPolicy;
+  private final CsvErrorSink errorSink;
+  private final CsvMetrics metrics;
+  private final boolean measure;
+  private final CsvProfiler profiler;
+  private final boolean reuse;
   private List<String> header;
   private Map<Integer, CsvColumn<?>> columnPos;
   private List<CsvColumn<?>> missedColumns;
+  private StringDictionary[] dictionaries;
 
   public FluentReader(FluentCSV fluentCsv) {
     this.columns = new ArrayList<>(fluentCsv.columns);
     this.config = fluentCsv.configuration.build();
+    this.snapshot = fluentCsv.snapshot;
+    this.snapshotVersion = fluentCsv.snapshotVersion;
+    this.errorPolicy = fluentCsv.errorPolicy;
+    this.errorSink = fluentCsv.errorSink;
+    this.metrics = fluentCsv.metrics;
+    this.measure = metrics != CsvMetrics.NONE;
+    this.profiler = fluentCsv.profiler;
+    this.reuse = fluentCsv.reuse;
   }
 
   @Override
   public Flowable<Map<CsvColumn<?>, Object>> from(Flowable<String> lines) {
-    return lines
-        .filter(this::filterComment)
-        .doOnNext(this::readHeader)
-        .skip(1)
-        .map(this::parse);
+    Flowable<String> source = measure ? lines.lift(new MetricsOperator<>(metrics, Stage.FRAMING)) : lines;
+    if (reuse) {
+      return Flowable.defer(() -> {
+        ReusableRecord record = new ReusableRecord(columns);
+        long[] row = { 0 };
+        Flowable<String> body = source
+            .filter(this::filterComment)
+            .doOnNext(this::readHeader)
+            .skip(1);
+        if (errorPolicy == CsvErrorPolicy.FAIL_FAST) {
+          return body.map(line -> parse(line, record));
+        }
+        return body.map(line -> parseLenient(line, row[0]++, record))
+            .filter(m -> m != SKIPPED);
+      });
+    }
+    if (errorPolicy == CsvErrorPolicy.FAIL_FAST) {
+      return source
+          .filter(this::filterComment)
+          .doOnNext(this::readHeader)
+          .skip(1)
+          .map(this::parse);
+    }
+    return Flowable.defer(() -> {
+      long[] row = { 0 };
+      return source
+          .filter(this::filterComment)
+          .doOnNext(this::readHeader)
+          .skip(1)
+          .map(line -> parseLenient(line, row[0]++))
+          .filter(m -> m != SKIPPED);
+    });
+  }
+
+  @Override
+  public Flowable<Map<CsvColumn<?>, Object>> from(Path path) throws IOException {
+    if (!snapshot || errorPolicy != CsvErrorPolicy.FAIL_FAST) {
+      return CsvReader.super.from(path);
+    }
+    return Flowable.defer(() -> {
+      List<Codec> codecs = Snapshot.codecsOf(columns, snapshotVersion);
+      if (codecs == null) {
+        debug("Columns can't be stored in snapshot without schema version, read from file directly.");
+        return CsvReader.super.from(path);
+      }
+      long fingerprint = Snapshot.fingerprint(config, columns, snapshotVersion);
+      Snapshot exist = Snapshot.open(path, fingerprint, columns, codecs);
+      if (exist != null) {
+        debug("Read from snapshot: " + Snapshot.pathOf(path));
+        return Flowable.<Map<CsvColumn<?>, Object>, Snapshot> generate(() -> exist, (s, e) -> {
+          Map<CsvColumn<?>, Object> next = s.next();
+          if (next == null) {
+            e.onComplete();
+          } else {
+            e.onNext(next);
+          }
+        }, Snapshot::close);
+      }
+      Flowable<Map<CsvColumn<?>, Object>> origin = CsvReader.super.from(path);
+      Snapshot.Writer writer;
+      try {
+        writer = new Snapshot.Writer(path, fingerprint, columns, codecs);
+      } catch (IOException e) {
+        warn("Fail to create snapshot of " + path, e);
+        return origin;
+      }
+      return Flowable.using(() -> writer,
+          w -> origin.doOnNext(w::write).doOnComplete(w::commit),
+          Snapshot.Writer::close);
+    });
+  }
+
+  @Override
+  public Flowable<List<Map<CsvColumn<?>, Object>>> fromBatched(Flowable<String> lines, int batchSize) {
+    return batches(lines.buffer(batchSize));
+  }
+
+  @Override
+  public Flowable<List<Map<CsvColumn<?>, Object>>> fromBatched(Path path, int batchSize) throws IOException {
+    if (snapshot) {
+      return CsvReader.super.fromBatched(path, batchSize);
+    }
+    if (batchSize <= 0) {
+      throw new IllegalArgumentException("Batch size must be positive: " + batchSize);
+    }
+    return batches(Flowable.generate(() -> LineDecoder.of(Files.newInputStream(path), Charset.defaultCharset()),
+        (reader, e) -> {
+          List<String> batch = new ArrayList<>(batchSize);
+          String line;
+          while (batch.size() < batchSize && (line = reader.readLine()) != null) {
+            batch.add(line);
+          }
+          if (!batch.isEmpty()) {
+            e.onNext(batch);
+          }
+          if (batch.size() < batchSize) {
+            e.onComplete();
+          }
+        }, LineDecoder::close));
+  }
+
+  /**
+   * Stream of the file which can be split by byte range for parallel processing. The header is read
+   * eagerly. In lenient error policy, the row reported to the error sink is in processing order.
+   */
+  @Override
+  public Stream<Map<CsvColumn<?>, Object>> stream(Path path) throws IOException, CsvException {
+    if (snapshot) {
+      return CsvReader.super.stream(path);
+    }
+    LineSpliterator lines = LineSpliterator.open(path, Charset.defaultCharset());
+    try {
+      String[] first = new String[1];
+      while (lines.tryAdvance(l -> first[0] = l) && !filterComment(first[0])) {
+        first[0] = null;
+      }
+      if (first[0] != null) {
+        readHeader(first[0]);
+      }
+    } catch (CsvException | RuntimeException e) {
+      lines.close();
+      throw e;
+    }
+    Stream<String> source = StreamSupport.stream(lines, false)
+        .onClose(() -> uncheck(lines::close))
+        .onClose(metrics::onFinish)
+        .filter(this::filterComment);
+    if (errorPolicy == CsvErrorPolicy.FAIL_FAST) {
+      return source.map(line -> uncheck(() -> parse(line)));
+    }
+    AtomicLong row = new AtomicLong();
+    return source.map(line -> uncheck(() -> parseLenient(line, row.getAndIncrement())))
+        .filter(m -> m != SKIPPED);
   }
 
   public <T> CsvBeanReader<T> asBean(Class<T> bean) throws CsvException {
-    return new BeanConstructor<>(bean);
+    if (!measure) {
+      return new BeanConstructor<>(bean);
+    }
+    long start = System.nanoTime();
+    BeanConstructor<T> reader = new BeanConstructor<>(bean);
+    metrics.onBindingPlan(bean, System.nanoTime() - start);
+    return reader;
   }
 
   private boolean addColumn(CsvColumn<?> column) {
@@ -85,6 +258,7 @@ public class FluentReader implements CsvReader<Map<CsvColumn<?>, Object>>, Logab
       if (header != null) {
         return;
       }
+      long start = measure ? System.nanoTime() : 0;
       header = config.split(line);
       columnPos = new LinkedHashMap<>();
       for (int i = 0; i < header.size(); i++) {
@@ -106,15 +280,114 @@ public class FluentReader implements CsvReader<Map<CsvColumn<?>, Object>>, Logab
           .filter(c -> !columnPos.containsValue(c))
           .filter(c -> c.defaultValue() != null)
           .collect(Collectors.toList());
+      if (columnPos.values().stream().anyMatch(c -> c.dictionary() > 0)) {
+        StringDictionary[] dicts = new StringDictionary[header.size()];
+        columnPos.forEach((i, c) -> dicts[i] = c.dictionary() > 0 ? new StringDictionary(c.dictionary()) : null);
+        dictionaries = dicts;
+      }
+      if (measure) {
+        metrics.onHeader(header, System.nanoTime() - start);
+      }
     }
   }
 
+  /**
+   * Frame and parse lines batch by batch in a tight loop. Empty batches are dropped.
+   */
+  private Flowable<List<Map<CsvColumn<?>, Object>>> batches(Flowable<List<String>> batches) {
+    Flowable<List<String>> source = measure ? batches.lift(new MetricsOperator<>(metrics, Stage.FRAMING)) : batches;
+    return Flowable.defer(() -> {
+      boolean[] headed = { false };
+      long[] row = { 0 };
+      return source.map(batch -> {
+        List<Map<CsvColumn<?>, Object>> result = new ArrayList<>(batch.size());
+        for (String line : batch) {
+          if (!filterComment(line)) {
+            continue;
+          }
+          if (!headed[0]) {
+            readHeader(line);
+            headed[0] = true;
+            continue;
+          }
+          Map<CsvColumn<?>, Object> value = errorPolicy == CsvErrorPolicy.FAIL_FAST ? parse(line)
+              : parseLenient(line, row[0]++);
+          if (value != SKIPPED) {
+            result.add(value);
+          }
+        }
+        return result;
+      }).filter(l -> !l.isEmpty());
+    });
+  }
+
   private Map<CsvColumn<?>, Object> parse(String line) throws CsvException {
-    List<String> split = config.split(line);
-    Map<CsvColumn<?>, Object> result = new HashMap<>();
+    return parse(line, null);
+  }
+
+  private Map<CsvColumn<?>, Object> parse(String line, @Nullable ReusableRecord record) throws CsvException {
+    Map<CsvColumn<?>, Object> result = parse(split(line), -1, record);
+    if (measure) {
+      metrics.onRecord(line.length() + 1);
+    }
+    return result;
+  }
+
+  /**
+   * Parse the line, report errors to the sink.
+   *
+   * @return {@link #SKIPPED} if the row should be skipped
+   */
+  private Map<CsvColumn<?>, Object> parseLenient(String line, long row) throws CsvException {
+    return parseLenient(line, row, null);
+  }
+
+  private Map<CsvColumn<?>, Object> parseLenient(String line, long row, @Nullable ReusableRecord record)
+      throws CsvException {
+    List<String> split;
+    try {
+      split = split(line);
+    } catch (CsvException e) {
+      errorSink.accept(row, null, line, CsvException.stackless(e.getMessage(), e.getCause()));
+      return SKIPPED;
+    }
+    Map<CsvColumn<?>, Object> result = parse(split, row, record);
+    if (measure && result != SKIPPED) {
+      metrics.onRecord(line.length() + 1);
+    }
+    return result;
+  }
+
+  private List<String> split(String line) throws CsvException {
+    if (!measure) {
+      return config.split(line, dictionaries);
+    }
+    long start = System.nanoTime();
+    try {
+      return config.split(line, dictionaries);
+    } catch (CsvException e) {
+      metrics.onError(Stage.SPLIT);
+      throw e;
+    } finally {
+      metrics.onStage(Stage.SPLIT, System.nanoTime() - start);
+    }
+  }
+
+  /**
+   * @param row the row index for lenient mode, or -1 to fail fast
+   * @param record the record to refill in reuse mode, or null to create new map
+   */
+  private Map<CsvColumn<?>, Object> parse(List<String> split, long row, @Nullable ReusableRecord record)
+      throws CsvException {
+    long start = measure ? System.nanoTime() : 0;
+    Probe probe = profiler == null ? null : profiler.sample();
+    Map<CsvColumn<?>, Object> result = record == null ? new HashMap<>() : record.reset();
     for (int i = 0; i < columns.size(); i++) {
       CsvColumn<?> column = columnPos.get(i);
       if (column != null) {
+        if (probe != null) {
+          probe.start();
+        }
         String str = split.size() > i ? split.get(i) : "";
         Object value;
         if (str.isEmpty()) {
@@ -127,14 +400,49 @@ public class FluentReader implements CsvReader<Map<CsvColumn<?>, Object>>, Logab
           } else {
             value = column.defaultValue().get();
           }
+        } else if (row == -1) {
+          try {
+            value = column.parser().parse(str);
+          } catch (RuntimeException e) {
+            metrics.onError(Stage.PARSE);
+            if (profiler != null) {
+              profiler.onFailure(column);
+            }
+            throw e;
+          }
         } else {
-          value = column.parser().parse(str);
+          value = column.parser().tryParse(str);
+          if (value == null) {
+            metrics.onError(Stage.PARSE);
+            if (profiler != null) {
+              profiler.onFailure(column);
+            }
+            errorSink.accept(row, column, str, CsvException.stackless(
+                format("Fail to parse [%s] for column %s.", str, column.name()), null));
+            if (errorPolicy == CsvErrorPolicy.SKIP_ROW || column.defaultValue() == null) {
+              if (probe != null) {
+                probe.stop(column);
+              }
+              if (errorPolicy == CsvErrorPolicy.SKIP_ROW) {
+                return SKIPPED;
+              }
+              continue;
+            } else {
+              value = column.defaultValue().get();
+            }
+          }
+        }
+        if (probe != null) {
+          probe.stop(column);
         }
         result.put(column, value);
       }
     }
     missedColumns.forEach(c -> result.put(c, c.defaultValue().get()));
-    return Collections.unmodifiableMap(result);
+    if (measure) {
+      metrics.onStage(Stage.PARSE, System.nanoTime() - start);
+    }
+    return record == null ? Collections.unmodifiableMap(result) : record;
   }
 
   @SuppressWarnings("unchecked")
@@ -146,6 +454,8 @@ public class FluentReader implements CsvReader<Map<CsvColumn<?>, Object>>, Logab
     private final List<CsvColumn<?>> parameters = new ArrayList<>(1);
     private final Map<CsvColumn<?>, BiConsumer<T, Object>> customSetter = new HashMap<>();
     private final Map<CsvColumn<?>, ActionE2<T, Object, Exception>> annoSetter = new HashMap<>();
+    private final Map<CsvColumn<?>, Class<?>> annoType = new HashMap<>();
+    private final Map<CsvColumn<?>, Class<?>> propertyType = new HashMap<>();
 
     public BeanConstructor(Class<T> clz) throws CsvException {
       this.clz = clz;
@@ -186,7 +496,7 @@ public class FluentReader implements CsvReader<Map<CsvColumn<?>, Object>>, Logab
         Class<?> type = toWrapper(getOrDefault(csv, CSV::type, p::getType));
         CsvValueParser<K> parser = firstNonNull(
             () -> getOrDefault(csv, CSV::parser, null).newInstance(),
-            () -> CsvValueParser.forType(type))
+            () -> CsvValueParser.forType(type, csv.pattern()))
                 .orElseThrow(() -> new CsvException("Can't construct CsvValueParser from %s.", csv));
         CsvException.assertTrue(toWrapper(p.getType()).isAssignableFrom(type), "Type must extends the parameter's type: %s", csv);
         CsvException.assertTrue(type.isAssignableFrom(parser.type()), "CsvValueParser is not matched to the type: %s.", csv);
@@ -199,7 +509,7 @@ public class FluentReader implements CsvReader<Map<CsvColumn<?>, Object>>, Logab
           defaultSupplier = () -> defaultValue;
         }
         boolean optional = csv.optional();
-        CsvColumn<?> column = CsvColumn.create(name, parser, defaultSupplier, optional);
+        CsvColumn<?> column = withDictionary(CsvColumn.create(name, parser, defaultSupplier, optional), csv);
         if (addColumn(column)) {
           parameters.add(column);
         }
@@ -213,7 +523,7 @@ public class FluentReader implements CsvReader<Map<CsvColumn<?>, Object>>, Logab
         Class<?> type = toWrapper(getOrDefault(csv, CSV::type, f::getType));
         CsvValueParser<K> parser = firstNonNull(
             () -> getOrDefault(csv, CSV::parser, null).newInstance(),
-            () -> CsvValueParser.forType(type))
+            () -> CsvValueParser.forType(type, csv.pattern()))
                 .orElseThrow(() -> new CsvException("Can't construct CsvValueParser from %s.", csv));
         CsvException.assertTrue(toWrapper(f.getType()).isAssignableFrom(type), "Type must extends the field's type: %s", csv);
         CsvException.assertTrue(type.isAssignableFrom(parser.type()), "CsvValueParser is not matched to the type: %s.", csv);
@@ -226,10 +536,11 @@ public class FluentReader implements CsvReader<Map<CsvColumn<?>, Object>>, Logab
           defaultSupplier = () -> defaultValue;
         }
         boolean optional = csv.optional();
-        CsvColumn<?> column = CsvColumn.create(name, parser, defaultSupplier, optional);
+        CsvColumn<?> column = withDictionary(CsvColumn.create(name, parser, defaultSupplier, optional), csv);
         if (addColumn(column)) {
           f.setAccessible(true);
           annoSetter.put(column, (obj, v) -> f.set(obj, v));
+          annoType.put(column, f.getType());
         }
       }
       for (Method m : methods) {
@@ -248,7 +559,7 @@ public class FluentReader implements CsvReader<Map<CsvColumn<?>, Object>>, Logab
         Class<?> type = toWrapper(getOrDefault(csv, CSV::type, () -> m.getParameterTypes()[0]));
         CsvValueParser<K> parser = firstNonNull(
             () -> getOrDefault(csv, CSV::parser, null).newInstance(),
-            () -> CsvValueParser.forType(type))
+            () -> CsvValueParser.forType(type, csv.pattern()))
                 .orElseThrow(() -> new CsvException("Can't construct CsvValueParser from %s.", csv));
         CsvException.assertTrue(toWrapper(m.getParameterTypes()[0]).isAssignableFrom(type),
             "Type must extends the method parameter type: %s", csv);
@@ -262,16 +573,38 @@ public class FluentReader implements CsvReader<Map<CsvColumn<?>, Object>>, Logab
           defaultSupplier = () -> defaultValue;
         }
         boolean optional = csv.optional();
-        CsvColumn<?> column = CsvColumn.create(name, parser, defaultSupplier, optional);
+        CsvColumn<?> column = withDictionary(CsvColumn.create(name, parser, defaultSupplier, optional), csv);
         if (addColumn(column)) {
           annoSetter.put(column, (obj, v) -> m.invoke(obj, v));
+          annoType.put(column, m.getParameterTypes()[0]);
         }
       }
     }
 
     @Override
     public Flowable<T> from(Flowable<String> lines) {
-      return FluentReader.this.from(lines).map(this::construct);
+      return bind(FluentReader.this.from(lines));
+    }
+
+    @Override
+    public Flowable<T> from(Path path) throws IOException {
+      return bind(FluentReader.this.from(path));
+    }
+
+    @Override
+    public Flowable<List<T>> fromBatched(Flowable<String> lines, int batchSize) {
+      return FluentReader.this.fromBatched(lines, batchSize).map(this::constructBatch);
+    }
+
+    @Override
+    public Flowable<List<T>> fromBatched(Path path, int batchSize) throws IOException {
+      return FluentReader.this.fromBatched(path, batchSize).map(this::constructBatch);
+    }
+
+    @Override
+    public Stream<T> stream(Path path) throws IOException, CsvException {
+      return FluentReader.this.stream(path)
+          .map(line -> uncheck(() -> measure ? measuredConstruct(line) : construct(line)));
     }
 
     @Override
@@ -298,20 +631,73 @@ public class FluentReader implements CsvReader<Map<CsvColumn<?>, Object>>, Logab
       }
     }
 
-    private T construct(Map<CsvColumn<?>, Object> line) throws CsvException {
-      List<Object> args = new ArrayList<>(constructor.getParameterCount());
-      for (CsvColumn<?> column : parameters) {
-        args.add(line.get(column));
+    private <K> CsvColumn<K> withDictionary(CsvColumn<K> column, CSV csv) {
+      return csv.dictionary() > 0 ? column.withDictionary(csv.dictionary()) : column;
+    }
+
+    /**
+     * Construct beans, or refill one bean per subscription in reuse mode.
+     */
+    private Flowable<T> bind(Flowable<Map<CsvColumn<?>, Object>> lines) {
+      if (!reuse || !parameters.isEmpty()) {
+        return lines.map(measure ? this::measuredConstruct : this::construct);
       }
-      T obj;
+      return Flowable.defer(() -> {
+        T bean = newInstance(Collections.emptyList());
+        return lines.map(line -> measure ? measuredConstruct(line, bean) : construct(line, bean));
+      });
+    }
+
+    private List<T> constructBatch(List<Map<CsvColumn<?>, Object>> batch) throws CsvException {
+      List<T> result = new ArrayList<>(batch.size());
+      for (Map<CsvColumn<?>, Object> line : batch) {
+        result.add(measure ? measuredConstruct(line) : construct(line));
+      }
+      return result;
+    }
+
+    private T measuredConstruct(Map<CsvColumn<?>, Object> line) throws CsvException {
+      return measuredConstruct(line, null);
+    }
+
+    private T measuredConstruct(Map<CsvColumn<?>, Object> line, @Nullable T reused) throws CsvException {
+      long start = System.nanoTime();
       try {
-        obj = constructor.newInstance(args.toArray());
-      } catch (Exception e) {
-        throw new CsvException("Fail to construct " + clz, e);
+        return construct(line, reused);
+      } catch (CsvException | RuntimeException e) {
+        metrics.onError(Stage.BIND);
+        throw e;
+      } finally {
+        metrics.onStage(Stage.BIND, System.nanoTime() - start);
+      }
+    }
+
+    private T construct(Map<CsvColumn<?>, Object> line) throws CsvException {
+      return construct(line, null);
+    }
+
+    /**
+     * @param reused the bean to refill in reuse mode, or null to construct new bean
+     */
+    private T construct(Map<CsvColumn<?>, Object> line, @Nullable T reused) throws CsvException {
+      T obj;
+      if (reused == null) {
+        List<Object> args = new ArrayList<>(constructor.getParameterCount());
+        for (CsvColumn<?> column : parameters) {
+          args.add(line.get(column));
+        }
+        obj = newInstance(args);
+      } else {
+        obj = reused;
       }
       for (CsvColumn<?> column : columns) {
         Object value = line.get(column);
-        if (value == null || parameters.contains(column)) {
+        if (parameters.contains(column)) {
+          continue;
+        } else if (value == null) {
+          if (reused != null) {
+            reset(obj, column);
+          }
           continue;
         } else if (injectByCustom(obj, column, value)) {
           debug(format("Set property %s by custom setter.", column.name()));
@@ -328,6 +714,48 @@ public class FluentReader implements CsvReader<Map<CsvColumn<?>, Object>>, Logab
       return obj;
     }
 
+    private T newInstance(List<Object> args) throws CsvException {
+      try {
+        return constructor.newInstance(args.toArray());
+      } catch (Exception e) {
+        throw new CsvException("Fail to construct " + clz, e);
+      }
+    }
+
+    /**
+     * Reset the absent property of the reused bean to null, or zero if the property is primitive.
+     */
+    private void reset(T obj, CsvColumn<?> column) {
+      Class<?> type = propertyType.computeIfAbsent(column, this::findPropertyType);
+      Object value = type.isPrimitive() ? Defaults.defaultValue(type) : null;
+      if (!(injectByCustom(obj, column, value) || injectByAnno(obj, column, value) || injectBySetter(obj, column, value)
+          || injectByField(obj, column, value))) {
+        debug(format("Fail to reset property %s.", column.name()));
+      }
+    }
+
+    /**
+     * The declared type of the property, in the same order as the injection.
+     */
+    private Class<?> findPropertyType(CsvColumn<?> column) {
+      Class<?> type = annoType.get(column);
+      if (type != null) {
+        return type;
+      }
+      String setterName = "set" + StringUtil.upperFirst(column.name());
+      return methods.stream()
+          .filter(m -> m.getName().equals(setterName))
+          .filter(m -> m.getParameterCount() == 1)
+          .filter(m -> Modifier.isPublic(m.getModifiers()))
+          .findFirst()
+          .<Class<?>> map(m -> m.getParameterTypes()[0])
+          .orElseGet(() -> fields.stream()
+              .filter(f -> f.getName().equals(column.name()))
+              .findFirst()
+              .<Class<?>> map(Field::getType)
+              .orElse(Object.class));
+    }
+
     private boolean injectByCustom(T obj, CsvColumn<?> column, Object value) {
       BiConsumer<T, Object> setter = customSetter.get(column);
       if (setter == null) {
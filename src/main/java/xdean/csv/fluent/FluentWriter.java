@@ -14,6 +14,7 @@ import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
@@ -23,6 +24,8 @@ import org.springframework.core.annotation.AnnotationUtils;
 import io.reactivex.Flowable;
 import xdean.csv.CsvColumn;
 import xdean.csv.CsvException;
+import xdean.csv.CsvMetrics;
+import xdean.csv.CsvMetrics.Stage;
 import xdean.csv.CsvValueFormatter;
 import xdean.csv.CsvWriter;
 import xdean.csv.annotation.CSV;
@@ -34,16 +37,29 @@ import xdean.jex.util.string.StringUtil;
 public class FluentWriter implements CsvWriter<Map<CsvColumn<?>, Object>>, Logable {
   private final Configuration config;
   private final List<CsvColumn<?>> columns;
+  private final CsvMetrics metrics;
+  private final boolean measure;
+  /**
+   * Escaped texts of enum columns by ordinal.
+   */
+  private final Map<CsvColumn<?>, String[]> enumTexts = new ConcurrentHashMap<>();
   private List<CsvColumn<?>> sortedColumns;
 
   public FluentWriter(FluentCSV fluentCsv) {
     this.columns = new ArrayList<>(fluentCsv.columns);
     this.sortedColumns = columns;
     this.config = fluentCsv.configuration.build();
+    this.metrics = fluentCsv.metrics;
+    this.measure = metrics != CsvMetrics.NONE;
   }
 
   @Override
   public Flowable<String> from(Flowable<Map<CsvColumn<?>, Object>> data) {
+    if (measure) {
+      return data.map(this::measuredFormat)
+          .startWith(getHeader())
+          .lift(new MetricsOperator<>(metrics, null));
+    }
     return data.map(this::format).startWith(getHeader());
   }
 
@@ -55,7 +71,13 @@ public class FluentWriter implements CsvWriter<Map<CsvColumn<?>, Object>>, Logab
   }
 
   public <T> CsvBeanWriter<T> asBean(Class<T> bean) throws CsvException {
-    return new BeanDeconstructor<>(bean);
+    if (!measure) {
+      return new BeanDeconstructor<>(bean);
+    }
+    long start = System.nanoTime();
+    BeanDeconstructor<T> writer = new BeanDeconstructor<>(bean);
+    metrics.onBindingPlan(bean, System.nanoTime() - start);
+    return writer;
   }
 
   private String getHeader() {
@@ -64,6 +86,20 @@ public class FluentWriter implements CsvWriter<Map<CsvColumn<?>, Object>>, Logab
         .collect(Collectors.joining(config.splitor + ""));
   }
 
+  private String measuredFormat(Map<CsvColumn<?>, Object> line) throws CsvException {
+    long start = System.nanoTime();
+    String result;
+    try {
+      result = format(line);
+    } catch (CsvException | RuntimeException e) {
+      metrics.onError(Stage.FORMAT);
+      throw e;
+    }
+    metrics.onStage(Stage.FORMAT, System.nanoTime() - start);
+    metrics.onRecord(result.length() + 1);
+    return result;
+  }
+
   @SuppressWarnings("unchecked")
   private String format(Map<CsvColumn<?>, Object> line) throws CsvException {
     String[] strs = new String[columns.size()];
@@ -79,12 +115,35 @@ public class FluentWriter implements CsvWriter<Map<CsvColumn<?>, Object>>, Logab
         }
         CsvValueFormatter<Object> formatter = (CsvValueFormatter<Object>) column.formatter();
         CsvException.assertTrue(formatter.type().isInstance(value), "%s is not instance of %s", value, formatter.type());
-        strs[index] = config.escape(formatter.format(value));
+        strs[index] = isEnumDefault(formatter) ? enumText(column, formatter, (Enum<?>) value)
+            : config.escape(formatter.format(value));
       }
     }
     return Arrays.stream(strs).collect(Collectors.joining(config.splitor + ""));
   }
 
+  /**
+   * If the formatter is the built-in {@link CsvValueFormatter#forEnum(Class)}. Custom formatters may
+   * not be pure, so their outputs are never cached.
+   */
+  private static boolean isEnumDefault(CsvValueFormatter<?> formatter) {
+    return formatter.type().isEnum() && CsvValueFormatter.forType(formatter.type()) == formatter;
+  }
+
+  /**
+   * Get the escaped text of the enum value. The built-in formatter is pure, so the text of each
+   * constant is formatted and escaped only once.
+   */
+  private String enumText(CsvColumn<?> column, CsvValueFormatter<Object> formatter, Enum<?> value) {
+    String[] texts = enumTexts.computeIfAbsent(column,
+        c -> new String[formatter.type().getEnumConstants().length]);
+    String text = texts[value.ordinal()];
+    if (text == null) {
+      text = texts[value.ordinal()] = config.escape(formatter.format(value));
+    }
+    return text;
+  }
+
   private boolean addColumn(CsvColumn<?> column) {
     if (findColumn(columns, column.name()).isPresent()) {
       debug("Column " + column.name() + " already exists.");
@@ -118,7 +177,7 @@ public class FluentWriter implements CsvWriter<Map<CsvColumn<?>, Object>>, Logab
         Class<?> type = toWrapper(getOrDefault(csv.type(), void.class, f::getType));
         CsvValueFormatter<K> formatter = firstNonNull(
             () -> getOrDefault(csv.formatter(), CsvValueFormatter.class, null).newInstance(),
-            () -> CsvValueFormatter.toString(type))
+            () -> CsvValueFormatter.forType(type, csv.pattern()))
                 .orElseThrow(() -> new CsvException("Can't construct CsvValueParser from %s.", csv));
         CsvException.assertTrue(toWrapper(f.getType()).isAssignableFrom(type), "Type must extends the field's type: %s", csv);
         CsvException.assertTrue(type.isAssignableFrom(formatter.type()), "CsvValueFormatter is not matched to the type: %s.",
@@ -147,7 +206,7 @@ public class FluentWriter implements CsvWriter<Map<CsvColumn<?>, Object>>, Logab
         Class<?> type = toWrapper(getOrDefault(csv.type(), void.class, () -> m.getReturnType()));
         CsvValueFormatter<K> parser = firstNonNull(
             () -> getOrDefault(csv.formatter(), CsvValueFormatter.class, null).newInstance(),
-            () -> CsvValueFormatter.toString(type))
+            () -> CsvValueFormatter.forType(type, csv.pattern()))
                 .orElseThrow(() -> new CsvException("Can't construct CsvValueParser from %s.", csv));
         CsvException.assertTrue(toWrapper(m.getReturnType()).isAssignableFrom(type),
             "Type must extends the method parameter type: %s", csv);
@@ -161,7 +220,7 @@ public class FluentWriter implements CsvWriter<Map<CsvColumn<?>, Object>>, Logab
 
     @Override
     public Flowable<String> from(Flowable<T> data) {
-      return FluentWriter.this.mapFrom(this::deconstruct).from(data);
+      return FluentWriter.this.mapFrom(measure ? this::measuredDeconstruct : this::deconstruct).from(data);
     }
 
     @Override
@@ -184,6 +243,18 @@ public class FluentWriter implements CsvWriter<Map<CsvColumn<?>, Object>>, Logab
       return this;
     }
 
+    private Map<CsvColumn<?>, Object> measuredDeconstruct(T obj) throws CsvException {
+      long start = System.nanoTime();
+      try {
+        return deconstruct(obj);
+      } catch (CsvException | RuntimeException e) {
+        metrics.onError(Stage.BIND);
+        throw e;
+      } finally {
+        metrics.onStage(Stage.BIND, System.nanoTime() - start);
+      }
+    }
+
     public Map<CsvColumn<?>, Object> deconstruct(T obj) throws CsvException {
       Map<CsvColumn<?>, Object> result = new HashMap<>();
       for (CsvColumn<?> column : columns) {
@@ -0,0 +1,100 @@
+package xdean.csv.fluent;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.Nullable;
+
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import io.reactivex.FlowableOperator;
+import io.reactivex.FlowableSubscriber;
+import io.reactivex.internal.util.BackpressureHelper;
+import xdean.csv.CsvMetrics;
+import xdean.csv.CsvMetrics.Stage;
+
+/**
+ * Operator to measure the time waiting for upstream items and the time waiting for downstream
+ * requests, and to notify {@link CsvMetrics#onFinish()} when the flow terminates or is cancelled.
+ * The result is approximate when request and items happen concurrently.
+ *
+ * @author Dean Xu (XDean@github.com)
+ */
+final class MetricsOperator<T> implements FlowableOperator<T, T> {
+  private final CsvMetrics metrics;
+  private final Stage upstreamStage;
+
+  /**
+   * @param upstreamStage the stage to record waiting for upstream items, null to not record
+   */
+  MetricsOperator(CsvMetrics metrics, @Nullable Stage upstreamStage) {
+    this.metrics = metrics;
+    this.upstreamStage = upstreamStage;
+  }
+
+  @Override
+  public Subscriber<? super T> apply(Subscriber<? super T> observer) {
+    return new MetricsSubscriber(observer);
+  }
+
+  private final class MetricsSubscriber extends AtomicLong implements FlowableSubscriber<T>, Subscription {
+    private final Subscriber<? super T> actual;
+    private Subscription s;
+    private volatile long mark;
+    private volatile long waitStart = -1;
+
+    MetricsSubscriber(Subscriber<? super T> actual) {
+      this.actual = actual;
+    }
+
+    @Override
+    public void onSubscribe(Subscription s) {
+      this.s = s;
+      actual.onSubscribe(this);
+    }
+
+    @Override
+    public void request(long n) {
+      long now = System.nanoTime();
+      long start = waitStart;
+      if (start != -1) {
+        waitStart = -1;
+        metrics.onBackpressure(now - start);
+      }
+      BackpressureHelper.add(this, n);
+      mark = now;
+      s.request(n);
+    }
+
+    @Override
+    public void onNext(T t) {
+      if (upstreamStage != null) {
+        metrics.onStage(upstreamStage, System.nanoTime() - mark);
+      }
+      actual.onNext(t);
+      long now = System.nanoTime();
+      mark = now;
+      if (get() != Long.MAX_VALUE && decrementAndGet() == 0) {
+        waitStart = now;
+      }
+    }
+
+    @Override
+    public void onError(Throwable t) {
+      metrics.onFinish();
+      actual.onError(t);
+    }
+
+    @Override
+    public void onComplete() {
+      metrics.onFinish();
+      actual.onComplete();
+    }
+
+    @Override
+    public void cancel() {
+      s.cancel();
+      metrics.onFinish();
+    }
+  }
+}
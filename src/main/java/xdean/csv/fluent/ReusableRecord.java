@@ -0,0 +1,131 @@
+package xdean.csv.fluent;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import xdean.csv.CsvColumn;
+
+/**
+ * Record refilled for each row in reuse mode. Values are stored in an array by column index, so
+ * refilling a row doesn't allocate.
+ *
+ * @author Dean Xu (XDean@github.com)
+ */
+final class ReusableRecord extends AbstractMap<CsvColumn<?>, Object> {
+  private final List<CsvColumn<?>> columns;
+  private final Map<CsvColumn<?>, Integer> index = new IdentityHashMap<>();
+  private final Object[] values;
+  private final EntrySet entrySet = new EntrySet();
+  private int size;
+
+  ReusableRecord(List<CsvColumn<?>> columns) {
+    this.columns = columns;
+    this.values = new Object[columns.size()];
+    for (int i = 0; i < columns.size(); i++) {
+      index.put(columns.get(i), i);
+    }
+  }
+
+  /**
+   * Clear values for the next row.
+   */
+  ReusableRecord reset() {
+    Arrays.fill(values, null);
+    size = 0;
+    return this;
+  }
+
+  @Override
+  public Object put(CsvColumn<?> key, Object value) {
+    int i = indexOf(key);
+    if (i == -1) {
+      throw new IllegalArgumentException("Unknown column: " + key);
+    }
+    Object old = values[i];
+    values[i] = value;
+    size += (old == null ? 1 : 0) - (value == null ? 1 : 0);
+    return old;
+  }
+
+  @Override
+  public Object get(Object key) {
+    int i = indexOf(key);
+    return i == -1 ? null : values[i];
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    return get(key) != null;
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public void clear() {
+    reset();
+  }
+
+  @Override
+  public Set<Entry<CsvColumn<?>, Object>> entrySet() {
+    return entrySet;
+  }
+
+  private int indexOf(Object key) {
+    Integer i = index.get(key);
+    if (i != null) {
+      return i;
+    }
+    for (int j = 0; j < columns.size(); j++) {
+      if (columns.get(j).equals(key)) {
+        return j;
+      }
+    }
+    return -1;
+  }
+
+  private final class EntrySet extends AbstractSet<Entry<CsvColumn<?>, Object>> {
+    @Override
+    public Iterator<Entry<CsvColumn<?>, Object>> iterator() {
+      return new Iterator<Entry<CsvColumn<?>, Object>>() {
+        int next = advance(0);
+
+        @Override
+        public boolean hasNext() {
+          return next < values.length;
+        }
+
+        @Override
+        public Entry<CsvColumn<?>, Object> next() {
+          if (!hasNext()) {
+            throw new NoSuchElementException();
+          }
+          Entry<CsvColumn<?>, Object> entry = new SimpleImmutableEntry<>(columns.get(next), values[next]);
+          next = advance(next + 1);
+          return entry;
+        }
+
+        private int advance(int from) {
+          while (from < values.length && values[from] == null) {
+            from++;
+          }
+          return from;
+        }
+      };
+    }
+
+    @Override
+    public int size() {
+      return size;
+    }
+  }
+}
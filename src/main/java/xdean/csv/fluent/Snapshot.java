@@ -0,0 +1,490 @@
+package xdean.csv.fluent;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+import javax.annotation.Nullable;
+
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+
+import xdean.csv.CsvColumn;
+import xdean.csv.CsvException;
+import xdean.csv.CsvValueParser;
+import xdean.csv.io.FileKey;
+import xdean.jex.log.Logable;
+
+/**
+ * Binary columnar snapshot of a parsed CSV file. The snapshot is stored next to the file and keyed
+ * by the file's path, size, modified time and the schema fingerprint. Values are stored column by
+ * column so that they can be streamed from memory-mapped buffers without tokenizing and parsing.
+ *
+ * <h3>Format</h3>
+ *
+ * <pre>
+ * magic, version, path, size, modified time, fingerprint, rows, column count,
+ * (offset, length, CRC32) of each column block,
+ * column blocks: (flag, value) of each row
+ * </pre>
+ *
+ * Blocks are verified by their CRC32 when the snapshot is opened, so that a corrupted snapshot is
+ * never partially read.
+ *
+ * Only columns whose type is String, primitive wrapper or enum can be stored.
+ *
+ * @author Dean Xu (XDean@github.com)
+ */
+final class Snapshot implements Closeable, Logable {
+  static final String SUFFIX = ".snapshot";
+
+  private static final int MAGIC = 0x43535653;
+  private static final int VERSION = 2;
+  private static final byte ABSENT = 0;
+  private static final byte PRESENT = 1;
+
+  /**
+   * Get the snapshot path of the CSV file.
+   */
+  static Path pathOf(Path csv) {
+    return csv.resolveSibling(csv.getFileName() + SUFFIX);
+  }
+
+  /**
+   * Get the codecs of the columns. Columns with custom parser can only be stored with the schema
+   * version, because the parser can't be identified.
+   *
+   * @return null if any column can't be stored
+   */
+  @Nullable
+  static List<Codec> codecsOf(List<CsvColumn<?>> columns, @Nullable String version) {
+    List<Codec> codecs = new ArrayList<>(columns.size());
+    for (CsvColumn<?> column : columns) {
+      Codec codec = Codec.of(column.parser().type());
+      if (codec == null || (version == null && !isDefault(column.parser()))) {
+        return null;
+      }
+      codecs.add(codec);
+    }
+    return codecs;
+  }
+
+  /**
+   * The schema fingerprint. Any change of the dialect, the columns or the schema version leads a
+   * different fingerprint. Default parsers are identified by their types, custom parsers are
+   * identified by the schema version.
+   */
+  static long fingerprint(Configuration config, List<CsvColumn<?>> columns, @Nullable String version) {
+    Hasher hasher = Hashing.murmur3_128().newHasher()
+        .putString(version == null ? "" : version, StandardCharsets.UTF_8)
+        .putChar(config.escaper)
+        .putChar(config.quoter)
+        .putChar(config.splitor)
+        .putBoolean(config.ignoreLeadingSpace);
+    for (CsvColumn<?> column : columns) {
+      Class<?> type = column.parser().type();
+      hasher.putString(column.name(), StandardCharsets.UTF_8)
+          .putString(type.getName(), StandardCharsets.UTF_8)
+          .putBoolean(isDefault(column.parser()))
+          .putBoolean(column.optional())
+          .putString(column.defaultValue() == null ? "" : String.valueOf(column.defaultValue().get()),
+              StandardCharsets.UTF_8);
+      if (type.isEnum()) {
+        Arrays.stream(type.getEnumConstants()).forEach(e -> hasher.putString(e.toString(), StandardCharsets.UTF_8));
+      }
+    }
+    return hasher.hash().asLong();
+  }
+
+  /**
+   * If the parser is the default parser of its type, see {@link CsvValueParser#forType(Class)}.
+   */
+  private static boolean isDefault(CsvValueParser<?> parser) {
+    try {
+      return CsvValueParser.forType(parser.type()) == parser;
+    } catch (CsvException e) {
+      return false;
+    }
+  }
+
+  private static String identity(Path csv) {
+    return csv.toAbsolutePath().normalize().toString();
+  }
+
+  /**
+   * Open the snapshot of the CSV file.
+   *
+   * @return null if there is no valid snapshot
+   */
+  @Nullable
+  static Snapshot open(Path csv, long fingerprint, List<CsvColumn<?>> columns, List<Codec> codecs) throws IOException {
+    Path path = pathOf(csv);
+    if (!Files.isRegularFile(path)) {
+      return null;
+    }
+    FileKey key = FileKey.of(csv);
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      long size = channel.size();
+      ByteBuffer head = channel.map(MapMode.READ_ONLY, 0, Math.min(size, Integer.MAX_VALUE));
+      if (head.remaining() < 8 || head.getInt() != MAGIC || head.getInt() != VERSION) {
+        return null;
+      }
+      byte[] pathBytes = new byte[head.getInt()];
+      head.get(pathBytes);
+      if (!new String(pathBytes, StandardCharsets.UTF_8).equals(identity(csv)) ||
+          head.getLong() != key.size() ||
+          head.getLong() != key.modified() ||
+          head.getLong() != fingerprint) {
+        return null;
+      }
+      long rows = head.getLong();
+      if (head.getInt() != columns.size()) {
+        return null;
+      }
+      ByteBuffer[] blocks = new ByteBuffer[columns.size()];
+      for (int i = 0; i < blocks.length; i++) {
+        long offset = head.getLong();
+        long length = head.getLong();
+        int checksum = head.getInt();
+        if (offset < 0 || length < 0 || length > Integer.MAX_VALUE || offset > size - length) {
+          return null;
+        }
+        blocks[i] = channel.map(MapMode.READ_ONLY, offset, length);
+        CRC32 crc = new CRC32();
+        crc.update(blocks[i].duplicate());
+        if ((int) crc.getValue() != checksum) {
+          return null;
+        }
+      }
+      return new Snapshot(rows, columns, codecs, blocks);
+    } catch (IOException | RuntimeException e) {
+      // corrupted snapshot
+      return null;
+    }
+  }
+
+  private final long rows;
+  private final List<CsvColumn<?>> columns;
+  private final List<Codec> codecs;
+  private final ByteBuffer[] blocks;
+  private final StringDictionary[] dictionaries;
+  private long read;
+
+  private Snapshot(long rows, List<CsvColumn<?>> columns, List<Codec> codecs, ByteBuffer[] blocks) {
+    this.rows = rows;
+    this.columns = columns;
+    this.codecs = codecs;
+    this.blocks = blocks;
+    this.dictionaries = new StringDictionary[columns.size()];
+    for (int i = 0; i < dictionaries.length; i++) {
+      CsvColumn<?> column = columns.get(i);
+      if (column.dictionary() > 0 && codecs.get(i) == Codec.STRING) {
+        dictionaries[i] = new StringDictionary(column.dictionary());
+      }
+    }
+  }
+
+  /**
+   * Read next row.
+   *
+   * @return null if there is no more row
+   */
+  @Nullable
+  Map<CsvColumn<?>, Object> next() {
+    if (read >= rows) {
+      return null;
+    }
+    read++;
+    Map<CsvColumn<?>, Object> result = new HashMap<>();
+    for (int i = 0; i < blocks.length; i++) {
+      ByteBuffer block = blocks[i];
+      if (block.get() == PRESENT) {
+        Object value = codecs.get(i).read(block);
+        result.put(columns.get(i), dictionaries[i] == null ? value : dictionaries[i].get((String) value));
+      }
+    }
+    return Collections.unmodifiableMap(result);
+  }
+
+  @Override
+  public void close() {
+    Arrays.fill(blocks, null);
+  }
+
+  /**
+   * Write values into a new snapshot. The snapshot will only be committed if the source doesn't
+   * change during the writing.
+   */
+  static final class Writer implements Closeable, Logable {
+    private final Path csv;
+    private final FileKey key;
+    private final long fingerprint;
+    private final List<CsvColumn<?>> columns;
+    private final List<Codec> codecs;
+    private final Path[] blockFiles;
+    private final DataOutputStream[] blockOutputs;
+    private final CRC32[] blockChecksums;
+    private long rows;
+    private boolean failed;
+
+    Writer(Path csv, long fingerprint, List<CsvColumn<?>> columns, List<Codec> codecs) throws IOException {
+      this.csv = csv;
+      this.key = FileKey.of(csv);
+      this.fingerprint = fingerprint;
+      this.columns = columns;
+      this.codecs = codecs;
+      this.blockFiles = new Path[columns.size()];
+      this.blockOutputs = new DataOutputStream[columns.size()];
+      this.blockChecksums = new CRC32[columns.size()];
+      try {
+        for (int i = 0; i < blockFiles.length; i++) {
+          blockFiles[i] = Files.createTempFile(csv.toAbsolutePath().getParent(), "." + csv.getFileName() + ".", ".block");
+          blockChecksums[i] = new CRC32();
+          blockOutputs[i] = new DataOutputStream(new BufferedOutputStream(
+              new CheckedOutputStream(Files.newOutputStream(blockFiles[i]), blockChecksums[i])));
+        }
+      } catch (IOException e) {
+        close();
+        throw e;
+      }
+    }
+
+    void write(Map<CsvColumn<?>, Object> row) {
+      if (failed) {
+        return;
+      }
+      try {
+        for (int i = 0; i < blockOutputs.length; i++) {
+          CsvColumn<?> column = columns.get(i);
+          if (row.containsKey(column)) {
+            blockOutputs[i].writeByte(PRESENT);
+            codecs.get(i).write(blockOutputs[i], row.get(column));
+          } else {
+            blockOutputs[i].writeByte(ABSENT);
+          }
+        }
+        rows++;
+      } catch (IOException | RuntimeException e) {
+        fail(e);
+      }
+    }
+
+    void commit() {
+      if (failed) {
+        return;
+      }
+      try {
+        if (!key.matches(csv)) {
+          debug("Source changed during reading, discard snapshot of " + csv);
+          return;
+        }
+        for (DataOutputStream output : blockOutputs) {
+          output.close();
+        }
+        ByteArrayOutputStream headBytes = new ByteArrayOutputStream();
+        DataOutputStream head = new DataOutputStream(headBytes);
+        byte[] pathBytes = identity(csv).getBytes(StandardCharsets.UTF_8);
+        head.writeInt(MAGIC);
+        head.writeInt(VERSION);
+        head.writeInt(pathBytes.length);
+        head.write(pathBytes);
+        key.write(head);
+        head.writeLong(fingerprint);
+        head.writeLong(rows);
+        head.writeInt(blockFiles.length);
+        long offset = head.size() + 20L * blockFiles.length;
+        for (int i = 0; i < blockFiles.length; i++) {
+          long length = Files.size(blockFiles[i]);
+          head.writeLong(offset);
+          head.writeLong(length);
+          head.writeInt((int) blockChecksums[i].getValue());
+          offset += length;
+        }
+        Path target = pathOf(csv);
+        Path temp = Files.createTempFile(csv.toAbsolutePath().getParent(), "." + csv.getFileName() + ".", SUFFIX);
+        try (FileChannel out = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+          out.write(ByteBuffer.wrap(headBytes.toByteArray()));
+          for (Path block : blockFiles) {
+            try (FileChannel in = FileChannel.open(block, StandardOpenOption.READ)) {
+              long size = in.size();
+              for (long position = 0; position < size;) {
+                position += in.transferTo(position, size - position, out);
+              }
+            }
+          }
+        } catch (IOException e) {
+          Files.deleteIfExists(temp);
+          throw e;
+        }
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        debug("Snapshot written: " + target);
+      } catch (IOException e) {
+        fail(e);
+      }
+    }
+
+    private void fail(Exception e) {
+      failed = true;
+      warn("Fail to write snapshot of " + csv, e);
+    }
+
+    @Override
+    public void close() {
+      for (int i = 0; i < blockFiles.length; i++) {
+        try {
+          if (blockOutputs[i] != null) {
+            blockOutputs[i].close();
+          }
+          if (blockFiles[i] != null) {
+            Files.deleteIfExists(blockFiles[i]);
+          }
+        } catch (IOException e) {
+          debug("Fail to delete snapshot block " + blockFiles[i], e);
+        }
+      }
+    }
+  }
+
+  /**
+   * Binary codec of column value.
+   */
+  abstract static class Codec {
+    abstract void write(DataOutputStream out, Object value) throws IOException;
+
+    abstract Object read(ByteBuffer buffer);
+
+    @Nullable
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    static Codec of(Class<?> type) {
+      if (type == String.class) {
+        return STRING;
+      } else if (type == Integer.class) {
+        return INT;
+      } else if (type == Long.class) {
+        return LONG;
+      } else if (type == Float.class) {
+        return FLOAT;
+      } else if (type == Double.class) {
+        return DOUBLE;
+      } else if (type == Boolean.class) {
+        return BOOLEAN;
+      } else if (type.isEnum()) {
+        return new EnumCodec(type);
+      } else {
+        return null;
+      }
+    }
+
+    static final Codec STRING = new Codec() {
+      @Override
+      void write(DataOutputStream out, Object value) throws IOException {
+        byte[] bytes = ((String) value).getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+      }
+
+      @Override
+      Object read(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+      }
+    };
+
+    static final Codec INT = new Codec() {
+      @Override
+      void write(DataOutputStream out, Object value) throws IOException {
+        out.writeInt((Integer) value);
+      }
+
+      @Override
+      Object read(ByteBuffer buffer) {
+        return buffer.getInt();
+      }
+    };
+
+    static final Codec LONG = new Codec() {
+      @Override
+      void write(DataOutputStream out, Object value) throws IOException {
+        out.writeLong((Long) value);
+      }
+
+      @Override
+      Object read(ByteBuffer buffer) {
+        return buffer.getLong();
+      }
+    };
+
+    static final Codec FLOAT = new Codec() {
+      @Override
+      void write(DataOutputStream out, Object value) throws IOException {
+        out.writeFloat((Float) value);
+      }
+
+      @Override
+      Object read(ByteBuffer buffer) {
+        return buffer.getFloat();
+      }
+    };
+
+    static final Codec DOUBLE = new Codec() {
+      @Override
+      void write(DataOutputStream out, Object value) throws IOException {
+        out.writeDouble((Double) value);
+      }
+
+      @Override
+      Object read(ByteBuffer buffer) {
+        return buffer.getDouble();
+      }
+    };
+
+    static final Codec BOOLEAN = new Codec() {
+      @Override
+      void write(DataOutputStream out, Object value) throws IOException {
+        out.writeBoolean((Boolean) value);
+      }
+
+      @Override
+      Object read(ByteBuffer buffer) {
+        return buffer.get() != 0;
+      }
+    };
+
+    private static final class EnumCodec<E extends Enum<E>> extends Codec {
+      private final E[] constants;
+
+      EnumCodec(Class<E> type) {
+        this.constants = type.getEnumConstants();
+      }
+
+      @Override
+      void write(DataOutputStream out, Object value) throws IOException {
+        out.writeInt(((Enum<?>) value).ordinal());
+      }
+
+      @Override
+      Object read(ByteBuffer buffer) {
+        return constants[buffer.getInt()];
+      }
+    }
+  }
+}
@@ -0,0 +1,89 @@
+package xdean.csv.fluent;
+
+/**
+ * Bounded dictionary which returns canonical String instance for the same content. Once the
+ * dictionary is full, new content will not be cached and a new String is returned.
+ *
+ * @implNote The dictionary is not synchronized. Concurrent access may lose some entries but never
+ *           returns wrong value, because String is immutable and the content is always compared.
+ * @author Dean Xu (XDean@github.com)
+ */
+final class StringDictionary {
+  private static final int MAX_LIMIT = 1 << 24;
+
+  private final int limit;
+  private final int mask;
+  private final String[] table;
+  private int size;
+
+  StringDictionary(int limit) {
+    this.limit = Math.min(Math.max(limit, 1), MAX_LIMIT);
+    int capacity = Integer.highestOneBit(this.limit * 2 - 1) << 1;
+    this.mask = capacity - 1;
+    this.table = new String[capacity];
+  }
+
+  /**
+   * Get the canonical String of the content in [offset, offset + length) of the buffer.
+   */
+  String get(char[] buffer, int offset, int length) {
+    int hash = 0;
+    for (int i = offset; i < offset + length; i++) {
+      hash = 31 * hash + buffer[i];
+    }
+    int index = spread(hash) & mask;
+    for (int probe = 0; probe <= mask; probe++) {
+      String s = table[index];
+      if (s == null) {
+        String value = new String(buffer, offset, length);
+        if (size < limit) {
+          table[index] = value;
+          size++;
+        }
+        return value;
+      } else if (s.hashCode() == hash && equals(s, buffer, offset, length)) {
+        return s;
+      }
+      index = (index + 1) & mask;
+    }
+    return new String(buffer, offset, length);
+  }
+
+  /**
+   * Get the canonical String of the value.
+   */
+  String get(String value) {
+    int hash = value.hashCode();
+    int index = spread(hash) & mask;
+    for (int probe = 0; probe <= mask; probe++) {
+      String s = table[index];
+      if (s == null) {
+        if (size < limit) {
+          table[index] = value;
+          size++;
+        }
+        return value;
+      } else if (s.hashCode() == hash && s.equals(value)) {
+        return s;
+      }
+      index = (index + 1) & mask;
+    }
+    return value;
+  }
+
+  private static boolean equals(String s, char[] buffer, int offset, int length) {
+    if (s.length() != length) {
+      return false;
+    }
+    for (int i = 0; i < length; i++) {
+      if (s.charAt(i) != buffer[offset + i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static int spread(int hash) {
+    return hash ^ (hash >>> 16);
+  }
+}
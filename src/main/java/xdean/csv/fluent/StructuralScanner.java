@@ -0,0 +1,75 @@
+package xdean.csv.fluent;
+
+import javax.annotation.Nullable;
+
+/**
+ * Scanner of structural characters, i.e. splitor, quoter and escaper. The tokenizer copies the
+ * characters between them in bulk, so its work is proportional to structural characters rather than
+ * all characters.
+ *
+ * @author Dean Xu (XDean@github.com)
+ */
+interface StructuralScanner {
+  /**
+   * Find the first structural character in [from, to) of the buffer.
+   *
+   * @return its index, or {@code to} if not found
+   */
+  int next(char[] buffer, int from, int to);
+
+  /**
+   * Get the scalar scanner specialized for the dialect. Disabled quoter or escaper should be the
+   * splitor.
+   */
+  static StructuralScanner scalar(char splitor, char quoter, char escaper) {
+    if (quoter == splitor && escaper == splitor) {
+      return (buffer, from, to) -> {
+        for (int i = from; i < to; i++) {
+          if (buffer[i] == splitor) {
+            return i;
+          }
+        }
+        return to;
+      };
+    } else if (quoter == splitor || escaper == splitor) {
+      char other = quoter == splitor ? escaper : quoter;
+      return (buffer, from, to) -> {
+        for (int i = from; i < to; i++) {
+          char c = buffer[i];
+          if (c == splitor || c == other) {
+            return i;
+          }
+        }
+        return to;
+      };
+    } else {
+      return (buffer, from, to) -> {
+        for (int i = from; i < to; i++) {
+          char c = buffer[i];
+          if (c == splitor || c == quoter || c == escaper) {
+            return i;
+          }
+        }
+        return to;
+      };
+    }
+  }
+
+  /**
+   * Get the scanner based on the JDK Vector API.
+   *
+   * @return the scanner, or null if the Vector API is not available, i.e. the runtime is older than
+   *         Java 17, the {@code jdk.incubator.vector} module is not added or the library is built
+   *         without the {@code vector} profile
+   */
+  @Nullable
+  static StructuralScanner vector(char splitor, char quoter, char escaper) {
+    try {
+      return (StructuralScanner) Class.forName("xdean.csv.fluent.VectorStructuralScanner")
+          .getConstructor(char.class, char.class, char.class)
+          .newInstance(splitor, quoter, escaper);
+    } catch (ReflectiveOperationException | LinkageError e) {
+      return null;
+    }
+  }
+}
@@ -0,0 +1,185 @@
+package xdean.csv.io;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Objects;
+import java.util.zip.CRC32;
+
+import javax.annotation.Nullable;
+
+import com.google.common.base.MoreObjects;
+
+import io.reactivex.Flowable;
+import xdean.csv.CsvException;
+import xdean.csv.CsvReader;
+
+/**
+ * Position in CSV file after a record. It contains the byte offset of the next line, the count of
+ * records before the offset and the fingerprint of the header. Reading can be resumed from it by
+ * {@link CsvReader#from(Path, CsvCheckpoint)} without scanning the preceding lines.
+ *
+ * @author Dean Xu (XDean@github.com)
+ */
+public final class CsvCheckpoint {
+  /**
+   * Read the file from the checkpoint by the reader. Each record is emitted with the checkpoint after
+   * it. The reader must emit records synchronously when it receives the lines, which is true for
+   * readers created by {@link xdean.csv.CsvConfiguration}.
+   *
+   * @param from the checkpoint to resume from, null means from start
+   * @param charset the file's charset, must be ASCII compatible
+   */
+  public static <T> Flowable<Checkpointed<T>> read(CsvReader<T> reader, Path csv, @Nullable CsvCheckpoint from,
+      Charset charset) {
+    return Flowable.defer(() -> {
+      CsvCheckpoint[] current = new CsvCheckpoint[1];
+      Flowable<String> lines = Flowable.using(() -> LineCursor.open(csv, 0, charset),
+          cursor -> {
+            String header = null;
+            while (cursor.next()) {
+              if (!cursor.startsWith('#')) {
+                header = cursor.line();
+                break;
+              }
+            }
+            if (header == null) {
+              return Flowable.<String> empty();
+            }
+            int fingerprint = fingerprint(header);
+            long[] record = { 0 };
+            if (from != null) {
+              CsvException.assertTrue(from.header == fingerprint, "The checkpoint is for another header: %s", from);
+              CsvException.assertTrue(from.offset >= cursor.end() && from.offset <= Files.size(csv),
+                  "The checkpoint is out of file: %s", from);
+              cursor.seek(from.offset - 1);
+              CsvException.assertTrue(cursor.next() && cursor.length() == 0 && cursor.terminated(),
+                  "The checkpoint is not at line start: %s", from);
+              record[0] = from.record;
+            }
+            return Flowable.concat(Flowable.just(header), Flowable.<String> generate(e -> {
+              if (cursor.next()) {
+                if (!cursor.startsWith('#')) {
+                  current[0] = new CsvCheckpoint(cursor.end(), ++record[0], fingerprint);
+                }
+                e.onNext(cursor.line());
+              } else {
+                e.onComplete();
+              }
+            }));
+          },
+          LineCursor::close);
+      return reader.from(lines).map(t -> new Checkpointed<>(t, current[0]));
+    });
+  }
+
+  /**
+   * Read checkpoint written by {@link #write(DataOutput)}.
+   */
+  public static CsvCheckpoint read(DataInput input) throws IOException {
+    return new CsvCheckpoint(input.readLong(), input.readLong(), input.readInt());
+  }
+
+  /**
+   * Fingerprint of the header line. It's computed on the UTF-8 bytes so that it doesn't depend on
+   * the platform charset.
+   */
+  public static int fingerprint(String header) {
+    CRC32 crc = new CRC32();
+    crc.update(header.getBytes(StandardCharsets.UTF_8));
+    return (int) crc.getValue();
+  }
+
+  private final long offset;
+  private final long record;
+  private final int header;
+
+  public CsvCheckpoint(long offset, long record, int header) {
+    this.offset = offset;
+    this.record = record;
+    this.header = header;
+  }
+
+  /**
+   * The byte offset of the line after the record.
+   */
+  public long offset() {
+    return offset;
+  }
+
+  /**
+   * The count of records before the offset, i.e. 0-based index of the next record.
+   */
+  public long record() {
+    return record;
+  }
+
+  /**
+   * The fingerprint of the header.
+   */
+  public int header() {
+    return header;
+  }
+
+  public void write(DataOutput output) throws IOException {
+    output.writeLong(offset);
+    output.writeLong(record);
+    output.writeInt(header);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(offset, record, header);
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (!(obj instanceof CsvCheckpoint)) {
+      return false;
+    }
+    CsvCheckpoint other = (CsvCheckpoint) obj;
+    return offset == other.offset && record == other.record && header == other.header;
+  }
+
+  @Override
+  public String toString() {
+    return MoreObjects.toStringHelper(this)
+        .add("offset", offset)
+        .add("record", record)
+        .add("header", Integer.toHexString(header))
+        .toString();
+  }
+
+  /**
+   * Record with the checkpoint after it.
+   */
+  public static final class Checkpointed<T> {
+    private final T value;
+    private final CsvCheckpoint checkpoint;
+
+    public Checkpointed(T value, CsvCheckpoint checkpoint) {
+      this.value = value;
+      this.checkpoint = checkpoint;
+    }
+
+    public T value() {
+      return value;
+    }
+
+    public CsvCheckpoint checkpoint() {
+      return checkpoint;
+    }
+
+    @Override
+    public String toString() {
+      return MoreObjects.toStringHelper(this)
+          .add("value", value)
+          .add("checkpoint", checkpoint)
+          .toString();
+    }
+  }
+}
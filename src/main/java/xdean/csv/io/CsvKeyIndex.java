@@ -0,0 +1,298 @@
+package xdean.csv.io;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import io.reactivex.Flowable;
+import xdean.csv.CsvColumn;
+import xdean.csv.CsvException;
+import xdean.csv.CsvReader;
+import xdean.csv.fluent.Configuration;
+import xdean.jex.log.Logable;
+
+/**
+ * Persistent hash index of a key column. It records key hash to the byte offset of the row in an
+ * on-disk open-addressing hash table, so that point lookup only reads, tokenizes and parses the
+ * matched rows.
+ *
+ * The key is hashed by the text of its parsed value ({@link String#valueOf(Object)}), so the lookup
+ * key should have the same type as the column's parser. Rows whose key can't be parsed are not
+ * indexed.
+ *
+ * @author Dean Xu (XDean@github.com)
+ * @param <K> the key type
+ */
+public final class CsvKeyIndex<K> implements Logable {
+  public static final String SUFFIX = ".keyindex";
+
+  private static final int MAGIC = 0x43534b49;
+  private static final int VERSION = 2;
+  private static final int SLOT_SIZE = 12;
+  private static final int SEGMENT_SHIFT = 26;
+  private static final long SEGMENT_SLOTS = 1L << SEGMENT_SHIFT;
+
+  /**
+   * Get the default index path of the CSV file's key column.
+   */
+  public static Path pathOf(Path csv, CsvColumn<?> key) {
+    return csv.resolveSibling(csv.getFileName() + "." + key.name().replaceAll("[^\\w-]", "_") + SUFFIX);
+  }
+
+  /**
+   * Get the key index. If there is a valid index file at {@link #pathOf(Path, CsvColumn)}, open it.
+   * Otherwise build the index.
+   *
+   * @param charset the file's charset, must be ASCII compatible
+   */
+  public static <K> CsvKeyIndex<K> of(Path csv, Configuration config, CsvColumn<K> key, Charset charset)
+      throws IOException, CsvException {
+    Path path = pathOf(csv, key);
+    if (Files.isRegularFile(path)) {
+      try {
+        CsvKeyIndex<K> index = open(csv, path, config, key, charset);
+        if (index.isValid()) {
+          return index;
+        }
+      } catch (IOException | CsvException e) {
+        // broken index, rebuild it
+      }
+    }
+    return build(csv, path, config, key, charset);
+  }
+
+  /**
+   * Open the index file.
+   *
+   * @throws CsvException if the index is not for the key column, or built by different dialect or
+   *           parser
+   */
+  public static <K> CsvKeyIndex<K> open(Path csv, Path index, Configuration config, CsvColumn<K> key,
+      Charset charset) throws IOException, CsvException {
+    try (FileChannel channel = FileChannel.open(index, StandardOpenOption.READ);
+        DataInputStream input = new DataInputStream(Channels.newInputStream(channel))) {
+      CsvException.assertTrue(input.readInt() == MAGIC && input.readInt() == VERSION, "Not a key index file: %s", index);
+      FileKey fileKey = FileKey.read(input);
+      String column = input.readUTF();
+      CsvException.assertTrue(column.equals(key.name()), "The index is for column %s, not %s.", column, key.name());
+      CsvException.assertTrue(input.readLong() == KeyParser.fingerprint(config, key),
+          "The index is built by different dialect or parser: %s", index);
+      long headerOffset = input.readLong();
+      int keyPosition = input.readInt();
+      long capacity = input.readLong();
+      long count = input.readLong();
+      long slotsOffset = input.readLong();
+      return new CsvKeyIndex<>(csv, config, key, charset, fileKey, headerOffset, keyPosition, count,
+          Slots.map(channel, MapMode.READ_ONLY, slotsOffset, capacity));
+    }
+  }
+
+  /**
+   * Build the index of the key column and save it to the index file.
+   */
+  public static <K> CsvKeyIndex<K> build(Path csv, Path index, Configuration config, CsvColumn<K> key,
+      Charset charset) throws IOException, CsvException {
+    FileKey fileKey = FileKey.of(csv);
+    long headerOffset = -1;
+    long rows = 0;
+    try (LineCursor cursor = LineCursor.open(csv, 0, charset)) {
+      while (cursor.next()) {
+        if (cursor.startsWith('#')) {
+          continue;
+        } else if (headerOffset == -1) {
+          headerOffset = cursor.offset();
+        } else {
+          rows++;
+        }
+      }
+    }
+    CsvException.assertTrue(headerOffset != -1, "No header found in %s.", csv);
+    long capacity = Long.highestOneBit(Math.max(rows * 2, 2) - 1) << 1;
+    Path temp = Files.createTempFile(index.toAbsolutePath().getParent(), "." + index.getFileName() + ".", ".tmp");
+    try {
+      try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.READ, StandardOpenOption.WRITE);
+          LineCursor cursor = LineCursor.open(csv, headerOffset, charset)) {
+        KeyParser<K> parser = KeyParser.of(config, key, cursor.lineAt(headerOffset));
+        ByteArrayOutputStream headBytes = new ByteArrayOutputStream();
+        DataOutputStream head = new DataOutputStream(headBytes);
+        head.writeInt(MAGIC);
+        head.writeInt(VERSION);
+        fileKey.write(head);
+        head.writeUTF(key.name());
+        head.writeLong(KeyParser.fingerprint(config, key));
+        head.writeLong(headerOffset);
+        head.writeInt(parser.position);
+        head.writeLong(capacity);
+        int countPosition = head.size();
+        head.writeLong(0);
+        long slotsOffset = head.size() + 8;
+        head.writeLong(slotsOffset);
+        channel.write(ByteBuffer.wrap(headBytes.toByteArray()), 0);
+        Slots slots = Slots.map(channel, MapMode.READ_WRITE, slotsOffset, capacity);
+        long count = 0;
+        while (cursor.next()) {
+          if (cursor.startsWith('#')) {
+            continue;
+          }
+          K value = parser.parse(cursor.line());
+          if (value != null) {
+            slots.put(hash(value), cursor.offset());
+            count++;
+          }
+        }
+        slots.force();
+        ByteBuffer countBytes = ByteBuffer.allocate(8).putLong(0, count);
+        channel.write(countBytes, countPosition);
+      }
+      Files.move(temp, index, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } finally {
+      Files.deleteIfExists(temp);
+    }
+    return open(csv, index, config, key, charset);
+  }
+
+  private final Path csv;
+  private final Charset charset;
+  private final KeyParser<K> parser;
+  private final FileKey fileKey;
+  private final long headerOffset;
+  private final long count;
+  private final Slots slots;
+
+  private CsvKeyIndex(Path csv, Configuration config, CsvColumn<K> key, Charset charset, FileKey fileKey,
+      long headerOffset, int keyPosition, long count, Slots slots) {
+    this.csv = csv;
+    this.charset = charset;
+    this.parser = new KeyParser<>(config, key, keyPosition);
+    this.fileKey = fileKey;
+    this.headerOffset = headerOffset;
+    this.count = count;
+    this.slots = slots;
+  }
+
+  /**
+   * If the index is still valid, i.e. the CSV file is not changed since the index built.
+   */
+  public boolean isValid() throws IOException {
+    return fileKey.matches(csv);
+  }
+
+  /**
+   * The count of indexed rows.
+   */
+  public long count() {
+    return count;
+  }
+
+  /**
+   * Find the byte offsets of rows whose key equals to the value.
+   */
+  public List<Long> offsets(K value) throws IOException, CsvException {
+    CsvException.assertTrue(isValid(), "The key index is out of date: %s", csv);
+    List<Long> candidates = slots.get(hash(value));
+    if (candidates.isEmpty()) {
+      return candidates;
+    }
+    List<Long> result = new ArrayList<>(candidates.size());
+    try (LineCursor cursor = LineCursor.open(csv, 0, charset)) {
+      for (long offset : candidates) {
+        if (Objects.equals(value, parser.parse(cursor.lineAt(offset)))) {
+          result.add(offset);
+        }
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Read the rows whose key equals to the value by the reader.
+   */
+  public <T> Flowable<T> lookup(CsvReader<T> reader, K value) {
+    return reader.from(Flowable.defer(() -> {
+      List<Long> offsets = offsets(value);
+      List<String> lines = new ArrayList<>(offsets.size() + 1);
+      try (LineCursor cursor = LineCursor.open(csv, 0, charset)) {
+        lines.add(cursor.lineAt(headerOffset));
+        for (long offset : offsets) {
+          lines.add(cursor.lineAt(offset));
+        }
+      }
+      return Flowable.fromIterable(lines);
+    }));
+  }
+
+  private static int hash(Object value) {
+    int h = String.valueOf(value).hashCode();
+    return h ^ (h >>> 16);
+  }
+
+  /**
+   * Open-addressing table of (hash, offset) slots on memory-mapped segments. Offset is stored plus
+   * one so that 0 means empty slot.
+   */
+  private static final class Slots {
+    static Slots map(FileChannel channel, MapMode mode, long position, long capacity) throws IOException {
+      int segmentCount = (int) ((capacity + SEGMENT_SLOTS - 1) >>> SEGMENT_SHIFT);
+      MappedByteBuffer[] segments = new MappedByteBuffer[segmentCount];
+      for (int i = 0; i < segmentCount; i++) {
+        long slots = Math.min(SEGMENT_SLOTS, capacity - ((long) i << SEGMENT_SHIFT));
+        segments[i] = channel.map(mode, position + ((long) i << SEGMENT_SHIFT) * SLOT_SIZE, slots * SLOT_SIZE);
+      }
+      return new Slots(segments, capacity);
+    }
+
+    private final MappedByteBuffer[] segments;
+    private final long mask;
+
+    private Slots(MappedByteBuffer[] segments, long capacity) {
+      this.segments = segments;
+      this.mask = capacity - 1;
+    }
+
+    void put(int hash, long offset) {
+      for (long slot = hash & mask;; slot = (slot + 1) & mask) {
+        ByteBuffer segment = segments[(int) (slot >>> SEGMENT_SHIFT)];
+        int index = (int) (slot & (SEGMENT_SLOTS - 1)) * SLOT_SIZE;
+        if (segment.getLong(index + 4) == 0) {
+          segment.putInt(index, hash);
+          segment.putLong(index + 4, offset + 1);
+          return;
+        }
+      }
+    }
+
+    List<Long> get(int hash) {
+      List<Long> result = new ArrayList<>(1);
+      for (long slot = hash & mask;; slot = (slot + 1) & mask) {
+        ByteBuffer segment = segments[(int) (slot >>> SEGMENT_SHIFT)];
+        int index = (int) (slot & (SEGMENT_SLOTS - 1)) * SLOT_SIZE;
+        long offset = segment.getLong(index + 4);
+        if (offset == 0) {
+          return result;
+        } else if (segment.getInt(index) == hash) {
+          result.add(offset - 1);
+        }
+      }
+    }
+
+    void force() {
+      for (MappedByteBuffer segment : segments) {
+        segment.force();
+      }
+    }
+  }
+}
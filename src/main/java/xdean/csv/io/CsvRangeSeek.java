@@ -0,0 +1,109 @@
+package xdean.csv.io;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import javax.annotation.Nullable;
+
+import io.reactivex.Flowable;
+import xdean.csv.CsvColumn;
+import xdean.csv.CsvReader;
+import xdean.csv.fluent.Configuration;
+
+/**
+ * Range reader of CSV file whose rows are sorted by a key column in ascending order. The start row
+ * is found by binary search on byte offset, each probe resynchronizes to the next line and only
+ * parses the key. So reading {@code [from, to)} only touches O(log n) probes and the matched rows.
+ *
+ * Rows whose key can't be parsed are skipped. If the file is not sorted, the result is undefined.
+ *
+ * @author Dean Xu (XDean@github.com)
+ * @param <K> the key type
+ */
+public final class CsvRangeSeek<K extends Comparable<? super K>> {
+
+  private final Path csv;
+  private final Configuration config;
+  private final CsvColumn<K> key;
+  private final Charset charset;
+
+  /**
+   * @param charset the file's charset, must be ASCII compatible
+   */
+  public CsvRangeSeek(Path csv, Configuration config, CsvColumn<K> key, Charset charset) {
+    this.csv = csv;
+    this.config = config;
+    this.key = key;
+    this.charset = charset;
+  }
+
+  /**
+   * Read rows whose key in [from, to) by the reader.
+   *
+   * @param from the inclusive lower bound, null means unbounded
+   * @param to the exclusive upper bound, null means unbounded
+   */
+  public <T> Flowable<T> range(CsvReader<T> reader, @Nullable K from, @Nullable K to) {
+    return reader.from(Flowable.using(() -> LineCursor.open(csv, 0, charset),
+        cursor -> {
+          long headerOffset = -1;
+          while (cursor.next()) {
+            if (!cursor.startsWith('#')) {
+              headerOffset = cursor.offset();
+              break;
+            }
+          }
+          if (headerOffset == -1) {
+            return Flowable.<String> empty();
+          }
+          String header = cursor.line();
+          KeyParser<K> parser = KeyParser.of(config, key, header);
+          long start = from == null ? cursor.end() : lowerBound(cursor, parser, cursor.end(), from);
+          cursor.seek(start);
+          return Flowable.concat(Flowable.just(header), Flowable.<String> generate(e -> {
+            while (cursor.next()) {
+              if (cursor.startsWith('#')) {
+                continue;
+              }
+              String line = cursor.line();
+              K value = parser.parse(line);
+              if (value == null) {
+                continue;
+              } else if (to != null && value.compareTo(to) >= 0) {
+                break;
+              }
+              e.onNext(line);
+              return;
+            }
+            e.onComplete();
+          }));
+        },
+        LineCursor::close));
+  }
+
+  /**
+   * Find the offset of the first row whose key is not less than the value.
+   */
+  private long lowerBound(LineCursor cursor, KeyParser<K> parser, long dataStart, K value) throws IOException {
+    long lo = dataStart;
+    long hi = Files.size(csv);
+    while (lo < hi) {
+      long mid = (lo + hi) >>> 1;
+      cursor.sync(mid);
+      K probe = null;
+      while (cursor.next()) {
+        if (!cursor.startsWith('#') && (probe = parser.parse(cursor.line())) != null) {
+          break;
+        }
+      }
+      if (probe == null || cursor.offset() >= hi || probe.compareTo(value) >= 0) {
+        hi = mid;
+      } else {
+        lo = cursor.end();
+      }
+    }
+    return lo;
+  }
+}
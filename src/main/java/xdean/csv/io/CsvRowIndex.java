@@ -0,0 +1,238 @@
+package xdean.csv.io;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+
+import io.reactivex.Flowable;
+import xdean.csv.CsvException;
+import xdean.jex.log.Logable;
+
+/**
+ * Sparse row index of CSV file. It records the byte offset of every {@link #interval()} rows, so
+ * that reading from any row only needs to scan at most {@code interval - 1} lines.
+ *
+ * The first non-comment line is the header. Rows are the following non-comment lines. Comment
+ * lines start with '#'.
+ *
+ * @author Dean Xu (XDean@github.com)
+ */
+public final class CsvRowIndex implements Logable {
+  public static final String SUFFIX = ".rowindex";
+  public static final int DEFAULT_INTERVAL = 1024;
+
+  private static final int MAGIC = 0x43535249;
+  private static final int VERSION = 1;
+
+  /**
+   * Get the default index path of the CSV file.
+   */
+  public static Path pathOf(Path csv) {
+    return csv.resolveSibling(csv.getFileName() + SUFFIX);
+  }
+
+  /**
+   * Get the index of the CSV file. If there is a valid index file at {@link #pathOf(Path)}, load it.
+   * Otherwise build the index and save it.
+   */
+  public static CsvRowIndex of(Path csv) throws IOException {
+    Path path = pathOf(csv);
+    if (Files.isRegularFile(path)) {
+      try {
+        CsvRowIndex index = load(path);
+        if (index.isValidFor(csv)) {
+          return index;
+        }
+      } catch (IOException e) {
+        // broken index, rebuild it
+      }
+    }
+    CsvRowIndex index = build(csv, DEFAULT_INTERVAL);
+    try {
+      index.save(path);
+    } catch (IOException e) {
+      index.warn("Fail to save row index to " + path, e);
+    }
+    return index;
+  }
+
+  /**
+   * Build the index of the CSV file in one pass.
+   *
+   * @param interval record the offset every interval rows
+   */
+  public static CsvRowIndex build(Path csv, int interval) throws IOException {
+    if (interval <= 0) {
+      throw new IllegalArgumentException("Interval must be positive: " + interval);
+    }
+    FileKey key = FileKey.of(csv);
+    long headerOffset = -1;
+    long rows = 0;
+    long[] offsets = new long[16];
+    int count = 0;
+    // only line boundaries are needed, which are same in all ASCII compatible charsets
+    try (LineCursor cursor = LineCursor.open(csv, 0, StandardCharsets.UTF_8)) {
+      while (cursor.next()) {
+        if (cursor.startsWith('#')) {
+          continue;
+        }
+        if (headerOffset == -1) {
+          headerOffset = cursor.offset();
+          continue;
+        }
+        if (rows % interval == 0) {
+          if (count == offsets.length) {
+            offsets = Arrays.copyOf(offsets, count * 2);
+          }
+          offsets[count++] = cursor.offset();
+        }
+        rows++;
+      }
+    }
+    return new CsvRowIndex(key, interval, headerOffset, rows, Arrays.copyOf(offsets, count));
+  }
+
+  /**
+   * Load index saved by {@link #save(Path)}.
+   */
+  public static CsvRowIndex load(Path path) throws IOException {
+    try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+      if (input.readInt() != MAGIC || input.readInt() != VERSION) {
+        throw new IOException("Not a row index file: " + path);
+      }
+      FileKey key = FileKey.read(input);
+      int interval = input.readInt();
+      long headerOffset = input.readLong();
+      long rows = input.readLong();
+      long[] offsets = new long[input.readInt()];
+      for (int i = 0; i < offsets.length; i++) {
+        offsets[i] = input.readLong();
+      }
+      return new CsvRowIndex(key, interval, headerOffset, rows, offsets);
+    }
+  }
+
+  private final FileKey key;
+  private final int interval;
+  private final long headerOffset;
+  private final long rows;
+  private final long[] offsets;
+
+  private CsvRowIndex(FileKey key, int interval, long headerOffset, long rows, long[] offsets) {
+    this.key = key;
+    this.interval = interval;
+    this.headerOffset = headerOffset;
+    this.rows = rows;
+    this.offsets = offsets;
+  }
+
+  /**
+   * Save the index to the path.
+   */
+  public void save(Path path) throws IOException {
+    Path temp = Files.createTempFile(path.toAbsolutePath().getParent(), "." + path.getFileName() + ".", ".tmp");
+    try {
+      try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+        output.writeInt(MAGIC);
+        output.writeInt(VERSION);
+        key.write(output);
+        output.writeInt(interval);
+        output.writeLong(headerOffset);
+        output.writeLong(rows);
+        output.writeInt(offsets.length);
+        for (long offset : offsets) {
+          output.writeLong(offset);
+        }
+      }
+      Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } finally {
+      Files.deleteIfExists(temp);
+    }
+  }
+
+  /**
+   * If the index is still valid for the CSV file, i.e. the file is not changed since the index
+   * built.
+   */
+  public boolean isValidFor(Path csv) throws IOException {
+    return key.matches(csv);
+  }
+
+  /**
+   * The rows count, not include header and comments.
+   */
+  public long rows() {
+    return rows;
+  }
+
+  /**
+   * The interval of recorded offsets.
+   */
+  public int interval() {
+    return interval;
+  }
+
+  /**
+   * The byte offset of the header line, or -1 if the file has no header.
+   */
+  public long headerOffset() {
+    return headerOffset;
+  }
+
+  /**
+   * The byte offset of the nearest indexed row at or before the row. If there is no row, it's
+   * {@link #headerOffset()}.
+   */
+  public long offsetBefore(long row) {
+    if (offsets.length == 0) {
+      return headerOffset;
+    }
+    return offsets[(int) (Math.min(row, rows - 1) / interval)];
+  }
+
+  /**
+   * Get the header and the lines of rows in [from, to).
+   *
+   * @param charset the file's charset, must be ASCII compatible
+   */
+  public Flowable<String> lines(Path csv, long from, long to, Charset charset) {
+    return Flowable.defer(() -> {
+      CsvException.assertTrue(isValidFor(csv), "The row index is out of date: %s", csv);
+      if (headerOffset == -1) {
+        return Flowable.<String> empty();
+      }
+      long start = Math.max(from, 0);
+      long end = Math.min(to, rows);
+      return Flowable.using(() -> LineCursor.open(csv, headerOffset, charset),
+          cursor -> {
+            String header = cursor.lineAt(headerOffset);
+            if (start >= end) {
+              return Flowable.just(header);
+            }
+            cursor.seek(offsetBefore(start));
+            long[] row = { start - start % interval };
+            return Flowable.concat(Flowable.just(header), Flowable.<String> generate(e -> {
+              while (row[0] < end && cursor.next()) {
+                if (cursor.startsWith('#')) {
+                  continue;
+                }
+                if (row[0]++ >= start) {
+                  e.onNext(cursor.line());
+                  return;
+                }
+              }
+              e.onComplete();
+            }));
+          },
+          LineCursor::close);
+    });
+  }
+}
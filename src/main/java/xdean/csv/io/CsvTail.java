@@ -0,0 +1,168 @@
+package xdean.csv.io;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+import io.reactivex.Emitter;
+import io.reactivex.Flowable;
+import io.reactivex.Scheduler;
+import io.reactivex.schedulers.Schedulers;
+import xdean.csv.CsvException;
+
+/**
+ * Follow lines of a growing CSV file, like {@code tail -f}. Existing lines are emitted first, then
+ * the file is polled for new complete lines. A trailing line without line terminator is held until
+ * it's completed.
+ *
+ * If the file is truncated or replaced (rotated), it's reopened from the start and its header line
+ * is skipped, so the header is emitted only once. The new header must be same as the first one.
+ *
+ * @author Dean Xu (XDean@github.com)
+ */
+public final class CsvTail implements Closeable {
+  /**
+   * Follow the file's lines. Polling happens on {@link Schedulers#computation()}.
+   *
+   * @param pollMillis the interval to check new lines, i.e. the latency of new lines
+   */
+  public static Flowable<String> lines(Path csv, long pollMillis, Charset charset) {
+    return lines(csv, pollMillis, charset, Schedulers.computation());
+  }
+
+  /**
+   * Follow the file's lines. Polling happens on the scheduler.
+   *
+   * @param pollMillis the interval to check new lines, i.e. the latency of new lines
+   */
+  public static Flowable<String> lines(Path csv, long pollMillis, Charset charset, Scheduler scheduler) {
+    if (pollMillis <= 0) {
+      throw new IllegalArgumentException("Poll interval must be positive: " + pollMillis);
+    }
+    return Flowable.using(() -> new CsvTail(csv, charset),
+        tail -> Flowable.interval(0, pollMillis, TimeUnit.MILLISECONDS, scheduler)
+            .onBackpressureDrop()
+            .concatMap(t -> Flowable.<String> generate(tail::poll)),
+        CsvTail::close);
+  }
+
+  private final Path csv;
+  private final Charset charset;
+  private LineCursor cursor;
+  private Object fileKey;
+  private FileTime created;
+  private long position;
+  private String header;
+  private long headerOffset;
+  private boolean headerRead;
+
+  private CsvTail(Path csv, Charset charset) {
+    this.csv = csv;
+    this.charset = charset;
+  }
+
+  /**
+   * Emit next complete line, or complete if there is no more line now.
+   */
+  private void poll(Emitter<String> e) throws IOException, CsvException {
+    if (cursor == null && !open()) {
+      e.onComplete();
+      return;
+    }
+    while (true) {
+      if (cursor.next() && cursor.terminated()) {
+        String line = cursor.line();
+        position = cursor.end();
+        if (!headerRead && !cursor.startsWith('#')) {
+          headerRead = true;
+          headerOffset = cursor.offset();
+          if (header == null) {
+            header = line;
+          } else {
+            CsvException.assertTrue(header.equals(line), "Header changed from [%s] to [%s].", header, line);
+            continue;
+          }
+        }
+        e.onNext(line);
+        return;
+      }
+      cursor.seek(position);
+      if (rotated()) {
+        cursor.close();
+        cursor = null;
+        if (open()) {
+          continue;
+        }
+      }
+      e.onComplete();
+      return;
+    }
+  }
+
+  private boolean open() throws IOException {
+    BasicFileAttributes attr;
+    try {
+      attr = Files.readAttributes(csv, BasicFileAttributes.class);
+      cursor = LineCursor.open(csv, 0, charset);
+    } catch (NoSuchFileException e) {
+      return false;
+    }
+    fileKey = attr.fileKey();
+    created = attr.creationTime();
+    position = 0;
+    headerRead = false;
+    return true;
+  }
+
+  /**
+   * If the file is truncated or replaced. Missing file is not regarded as rotated until new file
+   * created. If the platform has no file key, e.g. Windows, the creation time and the header line
+   * are checked instead.
+   */
+  private boolean rotated() throws IOException {
+    BasicFileAttributes attr;
+    try {
+      attr = Files.readAttributes(csv, BasicFileAttributes.class);
+    } catch (NoSuchFileException e) {
+      return false;
+    }
+    if (attr.size() < position) {
+      return true;
+    } else if (fileKey != null || attr.fileKey() != null) {
+      return !Objects.equals(attr.fileKey(), fileKey);
+    } else {
+      return !attr.creationTime().equals(created) || headerChanged();
+    }
+  }
+
+  /**
+   * If the line at the header's offset of the current file is not the header.
+   */
+  private boolean headerChanged() throws IOException {
+    if (!headerRead) {
+      return false;
+    }
+    try (LineCursor check = LineCursor.open(csv, 0, charset)) {
+      return !header.equals(check.lineAt(headerOffset));
+    } catch (NoSuchFileException e) {
+      return false;
+    } catch (EOFException e) {
+      return true;
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (cursor != null) {
+      cursor.close();
+    }
+  }
+}
@@ -0,0 +1,413 @@
+package xdean.csv.io;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import javax.annotation.Nullable;
+
+import io.reactivex.Flowable;
+import xdean.csv.CsvColumn;
+import xdean.csv.CsvException;
+import xdean.csv.CsvReader;
+import xdean.csv.fluent.Configuration;
+import xdean.jex.log.Logable;
+
+/**
+ * Block-level statistics (zone map) of CSV file. The file is divided into blocks of
+ * {@link #blockRows()} rows, and min, max and null count of the selected columns are recorded for
+ * each block. Range query can skip whole blocks whose statistics can't match. It's useful for the
+ * files which are clustered but not globally sorted.
+ *
+ * The statistics are computed by the columns' {@link xdean.csv.CsvValueParser}, so the column
+ * values must be {@link Comparable}. Empty value without default value and unparsable value are
+ * counted as null.
+ *
+ * @author Dean Xu (XDean@github.com)
+ */
+public final class CsvZoneMap implements Logable {
+  public static final String SUFFIX = ".zonemap";
+  public static final int DEFAULT_BLOCK_ROWS = 4096;
+
+  private static final int MAGIC = 0x43535a4d;
+  private static final int VERSION = 2;
+
+  /**
+   * Get the default zone map path of the CSV file.
+   */
+  public static Path pathOf(Path csv) {
+    return csv.resolveSibling(csv.getFileName() + SUFFIX);
+  }
+
+  /**
+   * Get the zone map of the CSV file. If there is a valid zone map file at {@link #pathOf(Path)}
+   * which covers the columns, load it. Otherwise build the zone map and save it.
+   *
+   * @param charset the file's charset, must be ASCII compatible
+   */
+  public static CsvZoneMap of(Path csv, Configuration config, Charset charset, CsvColumn<?>... columns)
+      throws IOException, CsvException {
+    Path path = pathOf(csv);
+    if (Files.isRegularFile(path)) {
+      try {
+        CsvZoneMap map = load(path, csv, config, charset, columns);
+        if (map.isValid()) {
+          return map;
+        }
+      } catch (IOException | CsvException e) {
+        // broken or different zone map, rebuild it
+      }
+    }
+    CsvZoneMap map = build(csv, config, charset, DEFAULT_BLOCK_ROWS, columns);
+    try {
+      map.save(path);
+    } catch (IOException e) {
+      map.warn("Fail to save zone map to " + path, e);
+    }
+    return map;
+  }
+
+  /**
+   * Build the zone map in one pass.
+   */
+  public static CsvZoneMap build(Path csv, Configuration config, Charset charset, int blockRows,
+      CsvColumn<?>... columns) throws IOException, CsvException {
+    if (blockRows <= 0) {
+      throw new IllegalArgumentException("Block rows must be positive: " + blockRows);
+    }
+    FileKey key = FileKey.of(csv);
+    List<Block> blocks = new ArrayList<>();
+    long headerOffset = -1;
+    try (LineCursor cursor = LineCursor.open(csv, 0, charset)) {
+      List<KeyParser<?>> parsers = null;
+      Block block = null;
+      while (cursor.next()) {
+        if (cursor.startsWith('#')) {
+          continue;
+        }
+        if (parsers == null) {
+          headerOffset = cursor.offset();
+          parsers = new ArrayList<>(columns.length);
+          for (CsvColumn<?> column : columns) {
+            CsvException.assertTrue(Comparable.class.isAssignableFrom(column.parser().type()),
+                "Column %s is not comparable.", column.name());
+            parsers.add(KeyParser.of(config, column, cursor.line()));
+          }
+          continue;
+        }
+        if (block == null || block.rows == blockRows) {
+          block = new Block(cursor.offset(), columns.length);
+          blocks.add(block);
+        }
+        List<String> split;
+        try {
+          split = config.split(cursor.line());
+        } catch (CsvException e) {
+          // the row can't be tokenized, so it has no valid value in any column
+          split = null;
+        }
+        for (int i = 0; i < columns.length; i++) {
+          KeyParser<?> parser = parsers.get(i);
+          block.stats[i].accept(split == null ? null : parser.parse(split), split == null ? null : parser.text(split));
+        }
+        block.rows++;
+        block.end = cursor.end();
+      }
+    }
+    return new CsvZoneMap(csv, config, charset, key, headerOffset, blockRows, Arrays.asList(columns), blocks);
+  }
+
+  /**
+   * Load zone map saved by {@link #save(Path)}.
+   *
+   * @throws CsvException if the zone map doesn't cover the columns, or built by different dialect or
+   *           parsers
+   */
+  public static CsvZoneMap load(Path path, Path csv, Configuration config, Charset charset,
+      CsvColumn<?>... columns) throws IOException, CsvException {
+    try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+      CsvException.assertTrue(input.readInt() == MAGIC && input.readInt() == VERSION, "Not a zone map file: %s", path);
+      FileKey key = FileKey.read(input);
+      long headerOffset = input.readLong();
+      int blockRows = input.readInt();
+      List<String> names = new ArrayList<>();
+      int columnCount = input.readInt();
+      for (int i = 0; i < columnCount; i++) {
+        names.add(input.readUTF());
+      }
+      List<String> expect = Arrays.stream(columns).map(CsvColumn::name).collect(Collectors.toList());
+      CsvException.assertTrue(names.equals(expect), "The zone map is for columns %s, not %s.", names, expect);
+      CsvException.assertTrue(input.readLong() == KeyParser.fingerprint(config, columns),
+          "The zone map is built by different dialect or parsers: %s", path);
+      int blockCount = input.readInt();
+      List<Block> blocks = new ArrayList<>(blockCount);
+      for (int i = 0; i < blockCount; i++) {
+        Block block = new Block(input.readLong(), columnCount);
+        block.end = input.readLong();
+        block.rows = input.readInt();
+        for (int j = 0; j < columnCount; j++) {
+          block.stats[j].read(input, new KeyParser<>(config, columns[j], 0));
+        }
+        blocks.add(block);
+      }
+      return new CsvZoneMap(csv, config, charset, key, headerOffset, blockRows, Arrays.asList(columns), blocks);
+    }
+  }
+
+  private final Path csv;
+  private final Configuration config;
+  private final Charset charset;
+  private final FileKey key;
+  private final long headerOffset;
+  private final int blockRows;
+  private final List<CsvColumn<?>> columns;
+  private final List<Block> blocks;
+
+  private CsvZoneMap(Path csv, Configuration config, Charset charset, FileKey key, long headerOffset,
+      int blockRows, List<CsvColumn<?>> columns, List<Block> blocks) {
+    this.csv = csv;
+    this.config = config;
+    this.charset = charset;
+    this.key = key;
+    this.headerOffset = headerOffset;
+    this.blockRows = blockRows;
+    this.columns = columns;
+    this.blocks = blocks;
+  }
+
+  /**
+   * Save the zone map to the path.
+   */
+  public void save(Path path) throws IOException {
+    Path temp = Files.createTempFile(path.toAbsolutePath().getParent(), "." + path.getFileName() + ".", ".tmp");
+    try {
+      try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+        output.writeInt(MAGIC);
+        output.writeInt(VERSION);
+        key.write(output);
+        output.writeLong(headerOffset);
+        output.writeInt(blockRows);
+        output.writeInt(columns.size());
+        for (CsvColumn<?> column : columns) {
+          output.writeUTF(column.name());
+        }
+        output.writeLong(KeyParser.fingerprint(config, columns.toArray(new CsvColumn<?>[0])));
+        output.writeInt(blocks.size());
+        for (Block block : blocks) {
+          output.writeLong(block.start);
+          output.writeLong(block.end);
+          output.writeInt(block.rows);
+          for (Stats stats : block.stats) {
+            stats.write(output);
+          }
+        }
+      }
+      Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } finally {
+      Files.deleteIfExists(temp);
+    }
+  }
+
+  /**
+   * If the zone map is still valid, i.e. the CSV file is not changed since it built.
+   */
+  public boolean isValid() throws IOException {
+    return key.matches(csv);
+  }
+
+  /**
+   * The rows of each block.
+   */
+  public int blockRows() {
+    return blockRows;
+  }
+
+  /**
+   * The count of blocks.
+   */
+  public int blocks() {
+    return blocks.size();
+  }
+
+  /**
+   * Select rows whose value of the column is in [from, to).
+   *
+   * @param from the inclusive lower bound, null means unbounded
+   * @param to the exclusive upper bound, null means unbounded
+   */
+  @SuppressWarnings("unchecked")
+  public <K extends Comparable<? super K>> Selection<K> select(CsvColumn<K> column, @Nullable K from, @Nullable K to)
+      throws CsvException {
+    int index = columns.indexOf(column);
+    CsvException.assertTrue(index != -1, "Column %s is not in the zone map.", column.name());
+    List<Block> matched = new ArrayList<>();
+    for (Block block : blocks) {
+      Stats stats = block.stats[index];
+      K min = (K) stats.min;
+      K max = (K) stats.max;
+      if (min == null ||
+          (to != null && min.compareTo(to) >= 0) ||
+          (from != null && max.compareTo(from) < 0)) {
+        continue;
+      }
+      matched.add(block);
+    }
+    return new Selection<>(column, matched, from, to);
+  }
+
+  /**
+   * Rows selection by zone map.
+   */
+  public final class Selection<K extends Comparable<? super K>> {
+    private final CsvColumn<K> column;
+    private final List<Block> matched;
+    private final K from;
+    private final K to;
+
+    private Selection(CsvColumn<K> column, List<Block> matched, K from, K to) {
+      this.column = column;
+      this.matched = matched;
+      this.from = from;
+      this.to = to;
+    }
+
+    /**
+     * The count of blocks to read.
+     */
+    public int blocks() {
+      return matched.size();
+    }
+
+    /**
+     * The count of pruned blocks.
+     */
+    public int pruned() {
+      return CsvZoneMap.this.blocks.size() - matched.size();
+    }
+
+    /**
+     * Read the selected rows by the reader.
+     */
+    public <T> Flowable<T> read(CsvReader<T> reader) {
+      return reader.from(Flowable.using(() -> LineCursor.open(csv, 0, charset),
+          cursor -> {
+            CsvException.assertTrue(isValid(), "The zone map is out of date: %s", csv);
+            if (headerOffset == -1) {
+              return Flowable.<String> empty();
+            }
+            String header = cursor.lineAt(headerOffset);
+            KeyParser<K> parser = KeyParser.of(config, column, header);
+            int[] blockIndex = { -1 };
+            return Flowable.concat(Flowable.just(header), Flowable.<String> generate(e -> {
+              while (true) {
+                if (blockIndex[0] == -1 || !cursor.next() || cursor.offset() >= matched.get(blockIndex[0]).end) {
+                  if (++blockIndex[0] >= matched.size()) {
+                    e.onComplete();
+                    return;
+                  }
+                  cursor.seek(matched.get(blockIndex[0]).start);
+                  continue;
+                }
+                if (cursor.startsWith('#')) {
+                  continue;
+                }
+                String line = cursor.line();
+                K value = parser.parse(line);
+                if (value != null &&
+                    (from == null || value.compareTo(from) >= 0) &&
+                    (to == null || value.compareTo(to) < 0)) {
+                  e.onNext(line);
+                  return;
+                }
+              }
+            }));
+          },
+          LineCursor::close));
+    }
+  }
+
+  private static final class Block {
+    final long start;
+    final Stats[] stats;
+    long end;
+    int rows;
+
+    Block(long start, int columns) {
+      this.start = start;
+      this.end = start;
+      this.stats = new Stats[columns];
+      for (int i = 0; i < columns; i++) {
+        stats[i] = new Stats();
+      }
+    }
+  }
+
+  @SuppressWarnings({ "rawtypes", "unchecked" })
+  private static final class Stats {
+    Comparable min;
+    Comparable max;
+    String minText;
+    String maxText;
+    long nulls;
+
+    void accept(Object value, String text) {
+      if (value == null) {
+        nulls++;
+        return;
+      }
+      Comparable c = (Comparable) value;
+      if (min == null || c.compareTo(min) < 0) {
+        min = c;
+        minText = text;
+      }
+      if (max == null || c.compareTo(max) > 0) {
+        max = c;
+        maxText = text;
+      }
+    }
+
+    void write(DataOutputStream output) throws IOException {
+      output.writeLong(nulls);
+      output.writeBoolean(min != null);
+      if (min != null) {
+        writeString(output, minText);
+        writeString(output, maxText);
+      }
+    }
+
+    void read(DataInputStream input, KeyParser<?> parser) throws IOException, CsvException {
+      nulls = input.readLong();
+      if (input.readBoolean()) {
+        minText = readString(input);
+        maxText = readString(input);
+        min = (Comparable) parser.parse(Collections.singletonList(minText));
+        max = (Comparable) parser.parse(Collections.singletonList(maxText));
+        CsvException.assertTrue(min != null && max != null, "Can't parse zone map statistics.");
+      }
+    }
+
+    private static void writeString(DataOutputStream output, String text) throws IOException {
+      byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+      output.writeInt(bytes.length);
+      output.write(bytes);
+    }
+
+    private static String readString(DataInputStream input) throws IOException {
+      byte[] bytes = new byte[input.readInt()];
+      input.readFully(bytes);
+      return new String(bytes, StandardCharsets.UTF_8);
+    }
+  }
+}
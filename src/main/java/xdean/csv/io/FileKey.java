@@ -0,0 +1,85 @@
+package xdean.csv.io;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.base.MoreObjects;
+
+/**
+ * Identity of a file's content by its size and last modified time. It's used to validate data
+ * derived from the file.
+ *
+ * @author Dean Xu (XDean@github.com)
+ */
+public final class FileKey {
+  /**
+   * Get the current key of the file.
+   */
+  public static FileKey of(Path path) throws IOException {
+    BasicFileAttributes attr = Files.readAttributes(path, BasicFileAttributes.class);
+    return new FileKey(attr.size(), attr.lastModifiedTime().to(TimeUnit.NANOSECONDS));
+  }
+
+  /**
+   * Read key written by {@link #write(DataOutput)}.
+   */
+  public static FileKey read(DataInput input) throws IOException {
+    return new FileKey(input.readLong(), input.readLong());
+  }
+
+  private final long size;
+  private final long modified;
+
+  public FileKey(long size, long modified) {
+    this.size = size;
+    this.modified = modified;
+  }
+
+  public long size() {
+    return size;
+  }
+
+  public long modified() {
+    return modified;
+  }
+
+  /**
+   * If the file still has this key.
+   */
+  public boolean matches(Path path) throws IOException {
+    return equals(of(path));
+  }
+
+  public void write(DataOutput output) throws IOException {
+    output.writeLong(size);
+    output.writeLong(modified);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(size, modified);
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (!(obj instanceof FileKey)) {
+      return false;
+    }
+    FileKey other = (FileKey) obj;
+    return size == other.size && modified == other.modified;
+  }
+
+  @Override
+  public String toString() {
+    return MoreObjects.toStringHelper(this)
+        .add("size", size)
+        .add("modified", modified)
+        .toString();
+  }
+}
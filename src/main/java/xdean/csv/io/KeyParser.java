@@ -0,0 +1,109 @@
+package xdean.csv.io;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import javax.annotation.Nullable;
+
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+
+import xdean.csv.CsvColumn;
+import xdean.csv.CsvException;
+import xdean.csv.CsvValueParser;
+import xdean.csv.fluent.Configuration;
+
+/**
+ * Parse only the key column of lines. Empty value is handled as same as {@code FluentReader}.
+ *
+ * @author Dean Xu (XDean@github.com)
+ */
+final class KeyParser<K> {
+  /**
+   * Create parser for the key column by the header line.
+   *
+   * @throws CsvException if the key column is not in the header
+   */
+  static <K> KeyParser<K> of(Configuration config, CsvColumn<K> key, String header) throws CsvException {
+    int position = config.split(header).indexOf(key.name());
+    CsvException.assertTrue(position != -1, "Column [%s] not found.", key.name());
+    return new KeyParser<>(config, key, position);
+  }
+
+  /**
+   * The fingerprint of the dialect and the columns' parsing. Persistent files built by different
+   * fingerprint must be rebuilt. Default parsers are identified by their types, custom parsers are
+   * only identified by their value types.
+   */
+  static long fingerprint(Configuration config, CsvColumn<?>... columns) {
+    Hasher hasher = Hashing.murmur3_128().newHasher()
+        .putChar(config.escaper)
+        .putChar(config.quoter)
+        .putChar(config.splitor)
+        .putBoolean(config.ignoreLeadingSpace);
+    for (CsvColumn<?> column : columns) {
+      hasher.putString(column.name(), StandardCharsets.UTF_8)
+          .putString(column.parser().type().getName(), StandardCharsets.UTF_8)
+          .putBoolean(isDefault(column.parser()))
+          .putString(column.defaultValue() == null ? "" : String.valueOf(column.defaultValue().get()),
+              StandardCharsets.UTF_8);
+    }
+    return hasher.hash().asLong();
+  }
+
+  private static boolean isDefault(CsvValueParser<?> parser) {
+    try {
+      return CsvValueParser.forType(parser.type()) == parser;
+    } catch (CsvException e) {
+      return false;
+    }
+  }
+
+  final int position;
+  private final Configuration config;
+  private final CsvColumn<K> key;
+
+  KeyParser(Configuration config, CsvColumn<K> key, int position) {
+    this.config = config;
+    this.key = key;
+    this.position = position;
+  }
+
+  /**
+   * Parse the key of the line.
+   *
+   * @return null if the line has no valid key
+   */
+  @Nullable
+  K parse(String line) {
+    try {
+      return parse(config.split(line));
+    } catch (CsvException e) {
+      return null;
+    }
+  }
+
+  /**
+   * Parse the key of the split line.
+   *
+   * @return null if the line has no valid key
+   */
+  @Nullable
+  K parse(List<String> split) {
+    String text = text(split);
+    if (!text.isEmpty() || key.defaultValue() == null && key.parser().type() == String.class) {
+      return key.parser().tryParse(text);
+    } else if (key.defaultValue() != null) {
+      return key.defaultValue().get();
+    } else {
+      return null;
+    }
+  }
+
+  /**
+   * The key text of the split line.
+   */
+  String text(List<String> split) {
+    return split.size() > position ? split.get(position) : "";
+  }
+}
@@ -0,0 +1,239 @@
+package xdean.csv.io;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Cursor to read lines of file with their byte offsets. Lines are terminated by '\n', '\r' or
+ * "\r\n", the same as {@link LineDecoder}. The UTF-8 byte order mark at the file start is skipped.
+ *
+ * @apiNote The charset must be ASCII compatible (e.g. UTF-8), so that line terminators can be found
+ *          in bytes directly.
+ * @author Dean Xu (XDean@github.com)
+ */
+public class LineCursor implements Closeable {
+  private static final int BUFFER_SIZE = 64 * 1024;
+
+  /**
+   * Open cursor on the file at the position.
+   */
+  public static LineCursor open(Path path, long position, Charset charset) throws IOException {
+    LineCursor cursor = new LineCursor(FileChannel.open(path, StandardOpenOption.READ), charset);
+    cursor.seek(position);
+    return cursor;
+  }
+
+  private final FileChannel channel;
+  private final Charset charset;
+  private byte[] buffer = new byte[BUFFER_SIZE];
+  private long bufferOffset;
+  private int pos;
+  private int limit;
+  private boolean eof;
+
+  private int lineStart = -1;
+  private int lineEnd;
+  private int next;
+  private boolean terminated;
+
+  private LineCursor(FileChannel channel, Charset charset) {
+    this.channel = channel;
+    this.charset = charset;
+  }
+
+  /**
+   * Move the cursor to the position. The next line starts at the position.
+   */
+  public void seek(long position) throws IOException {
+    bufferOffset = position;
+    pos = limit = 0;
+    eof = false;
+    lineStart = -1;
+    channel.position(position);
+  }
+
+  /**
+   * Move the cursor to the start of the first line at or after the position. It's useful to
+   * resynchronize to line boundary from an arbitrary position.
+   */
+  public void sync(long position) throws IOException {
+    if (position <= 0) {
+      seek(0);
+      return;
+    }
+    seek(position - 1);
+    if (next()) {
+      // the first line may start after the position only if the byte order mark is skipped
+      pos = offset() < position ? next : lineStart;
+      lineStart = -1;
+    }
+  }
+
+  /**
+   * Read next line.
+   *
+   * @return false if no more line
+   */
+  public boolean next() throws IOException {
+    if (lineStart != -1) {
+      pos = next;
+      lineStart = -1;
+    }
+    if (bufferOffset + pos == 0) {
+      skipBom();
+    }
+    int scanned = 0;
+    while (true) {
+      int i = pos + scanned;
+      for (; i < limit; i++) {
+        byte b = buffer[i];
+        if (b == '\n' || b == '\r') {
+          break;
+        }
+      }
+      if (i < limit && (buffer[i] == '\n' || i + 1 < limit || eof)) {
+        boolean crlf = buffer[i] == '\r' && i + 1 < limit && buffer[i + 1] == '\n';
+        setLine(i, crlf ? i + 2 : i + 1, buffer[i] == '\n' || i + 1 < limit);
+        return true;
+      }
+      // no terminator, or '\r' is the last byte and need the next byte to know if it's "\r\n"
+      scanned = i - pos;
+      if (!eof && fill()) {
+        continue;
+      }
+      if (pos + scanned < limit) {
+        continue;
+      }
+      if (pos < limit) {
+        setLine(limit, limit, false);
+        return true;
+      }
+      return false;
+    }
+  }
+
+  /**
+   * The current line's text.
+   */
+  public String line() {
+    checkLine();
+    return new String(buffer, lineStart, lineEnd - lineStart, charset);
+  }
+
+  /**
+   * The current line's length in bytes, without line terminator.
+   */
+  public int length() {
+    checkLine();
+    return lineEnd - lineStart;
+  }
+
+  /**
+   * The byte of the current line at the index.
+   */
+  public byte byteAt(int index) {
+    checkLine();
+    return buffer[lineStart + index];
+  }
+
+  /**
+   * If the current line starts with the ASCII character.
+   */
+  public boolean startsWith(char c) {
+    return length() > 0 && byteAt(0) == c;
+  }
+
+  /**
+   * If the current line ends with line terminator. Only the last line of the file can be not
+   * terminated.
+   */
+  public boolean terminated() {
+    checkLine();
+    return terminated;
+  }
+
+  /**
+   * The byte offset of the current line.
+   */
+  public long offset() {
+    checkLine();
+    return bufferOffset + lineStart;
+  }
+
+  /**
+   * The byte offset after the current line, i.e. the offset of the next line.
+   */
+  public long end() {
+    checkLine();
+    return bufferOffset + next;
+  }
+
+  /**
+   * Read the whole line at the offset.
+   */
+  public String lineAt(long offset) throws IOException {
+    seek(offset);
+    if (!next()) {
+      throw new EOFException("No line at " + offset);
+    }
+    return line();
+  }
+
+  @Override
+  public void close() throws IOException {
+    channel.close();
+  }
+
+  private void setLine(int newline, int next, boolean terminated) {
+    this.lineStart = pos;
+    this.lineEnd = newline;
+    this.next = next;
+    this.terminated = terminated;
+  }
+
+  private void skipBom() throws IOException {
+    while (limit - pos < 3 && fill()) {
+    }
+    if (limit - pos >= 3 && buffer[pos] == (byte) 0xEF && buffer[pos + 1] == (byte) 0xBB &&
+        buffer[pos + 2] == (byte) 0xBF) {
+      pos += 3;
+    }
+  }
+
+  /**
+   * Read more bytes. The unread bytes are moved to the buffer head.
+   *
+   * @return false if reach end
+   */
+  private boolean fill() throws IOException {
+    if (pos > 0) {
+      System.arraycopy(buffer, pos, buffer, 0, limit - pos);
+      bufferOffset += pos;
+      limit -= pos;
+      pos = 0;
+    }
+    if (limit == buffer.length) {
+      buffer = Arrays.copyOf(buffer, buffer.length * 2);
+    }
+    int read = channel.read(ByteBuffer.wrap(buffer, limit, buffer.length - limit));
+    if (read < 0) {
+      eof = true;
+      return false;
+    }
+    limit += read;
+    return true;
+  }
+
+  private void checkLine() {
+    if (lineStart == -1) {
+      throw new IllegalStateException("No current line.");
+    }
+  }
+}
@@ -0,0 +1,194 @@
+package xdean.csv.io;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.PushbackInputStream;
+import java.io.Reader;
+import java.io.SequenceInputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import javax.annotation.Nullable;
+
+/**
+ * Read lines from bytes. Lines are terminated by '\n', '\r' or "\r\n".
+ *
+ * If the charset is ASCII compatible (e.g. UTF-8), line terminators are found in bytes directly
+ * and a line is decoded only when it's read. Lines of only ASCII bytes are copied to String
+ * without decoder. Otherwise it reads by {@link BufferedReader}.
+ *
+ * The byte order mark is detected and skipped. It overrides the given charset.
+ *
+ * @author Dean Xu (XDean@github.com)
+ */
+public class LineDecoder implements Closeable {
+  private static final int BUFFER_SIZE = 64 * 1024;
+  private static final byte[] TERMINATORS = { '\n', '\r' };
+
+  /**
+   * Create decoder on the stream. The stream is closed by {@link #close()}.
+   */
+  public static LineDecoder of(InputStream input, Charset charset) throws IOException {
+    return new LineDecoder(input, charset);
+  }
+
+  /**
+   * Create character reader on the stream. The byte order mark is skipped and overrides the given
+   * charset as same as {@link LineDecoder}.
+   */
+  public static Reader reader(InputStream input, Charset charset) throws IOException {
+    PushbackInputStream pushback = new PushbackInputStream(input, 3);
+    byte[] head = new byte[3];
+    int length = 0;
+    for (int read; length < head.length && (read = pushback.read(head, length, head.length - length)) != -1;) {
+      length += read;
+    }
+    Charset bom = bom(head, length);
+    int skip = bom == null ? 0 : bom == StandardCharsets.UTF_8 ? 3 : 2;
+    pushback.unread(head, skip, length - skip);
+    return new InputStreamReader(pushback, bom == null ? charset : bom);
+  }
+
+  /**
+   * @return the charset of the byte order mark at the head of bytes, or null if no byte order mark
+   */
+  @Nullable
+  private static Charset bom(byte[] bytes, int length) {
+    if (startsWith(bytes, length, 0xEF, 0xBB, 0xBF)) {
+      return StandardCharsets.UTF_8;
+    } else if (startsWith(bytes, length, 0xFE, 0xFF)) {
+      return StandardCharsets.UTF_16BE;
+    } else if (startsWith(bytes, length, 0xFF, 0xFE)) {
+      return StandardCharsets.UTF_16LE;
+    } else {
+      return null;
+    }
+  }
+
+  private static boolean startsWith(byte[] buffer, int limit, int... bytes) {
+    if (limit < bytes.length) {
+      return false;
+    }
+    for (int i = 0; i < bytes.length; i++) {
+      if ((buffer[i] & 0xFF) != bytes[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private final InputStream input;
+  private final Charset charset;
+  private final BufferedReader reader;
+  private byte[] buffer = new byte[BUFFER_SIZE];
+  private int pos;
+  private int limit;
+  private boolean eof;
+
+  private LineDecoder(InputStream input, Charset charset) throws IOException {
+    this.input = input;
+    while (limit < 3 && fill()) {
+    }
+    Charset bom = bom(buffer, limit);
+    if (bom != null) {
+      pos = bom == StandardCharsets.UTF_8 ? 3 : 2;
+      charset = bom;
+    }
+    this.charset = charset;
+    if (Arrays.equals("\n\r".getBytes(charset), TERMINATORS)) {
+      this.reader = null;
+    } else {
+      InputStream rest = new SequenceInputStream(new ByteArrayInputStream(buffer, pos, limit - pos), input);
+      this.reader = new BufferedReader(new InputStreamReader(rest, charset));
+      this.buffer = null;
+    }
+  }
+
+  /**
+   * The charset in use, which may be from the byte order mark.
+   */
+  public Charset charset() {
+    return charset;
+  }
+
+  /**
+   * Read next line.
+   *
+   * @return the line without terminator, or null if no more line
+   */
+  @Nullable
+  public String readLine() throws IOException {
+    if (reader != null) {
+      return reader.readLine();
+    }
+    int scanned = 0;
+    int ascii = 0;
+    while (true) {
+      int i = pos + scanned;
+      for (; i < limit; i++) {
+        byte b = buffer[i];
+        if (b == '\n' || b == '\r') {
+          break;
+        }
+        ascii |= b;
+      }
+      if (i < limit) {
+        if (buffer[i] == '\r' && i + 1 == limit && !eof) {
+          // need the next byte to know if it's "\r\n"
+          scanned = i - pos;
+          fill();
+          continue;
+        }
+        String line = decode(pos, i - pos, ascii >= 0);
+        pos = buffer[i] == '\r' && i + 1 < limit && buffer[i + 1] == '\n' ? i + 2 : i + 1;
+        return line;
+      }
+      scanned = limit - pos;
+      if (eof || !fill()) {
+        if (pos < limit) {
+          String line = decode(pos, limit - pos, ascii >= 0);
+          pos = limit;
+          return line;
+        }
+        return null;
+      }
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    input.close();
+  }
+
+  private String decode(int offset, int length, boolean ascii) {
+    return ascii ? new String(buffer, offset, length, StandardCharsets.ISO_8859_1) : new String(buffer, offset, length, charset);
+  }
+
+  /**
+   * Read more bytes. The unread bytes are moved to the buffer head.
+   *
+   * @return false if reach end
+   */
+  private boolean fill() throws IOException {
+    if (pos > 0) {
+      System.arraycopy(buffer, pos, buffer, 0, limit - pos);
+      limit -= pos;
+      pos = 0;
+    }
+    if (limit == buffer.length) {
+      buffer = Arrays.copyOf(buffer, buffer.length * 2);
+    }
+    int read = input.read(buffer, limit, buffer.length - limit);
+    if (read == -1) {
+      eof = true;
+      return false;
+    }
+    limit += read;
+    return true;
+  }
+}
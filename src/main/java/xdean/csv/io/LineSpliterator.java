@@ -0,0 +1,171 @@
+package xdean.csv.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Queue;
+import java.util.Spliterator;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
+
+/**
+ * Spliterator of file lines in a byte range. It splits the range by bytes and aligns to line
+ * boundaries, so that a parallel stream reads different parts of the file concurrently. Records
+ * are always single lines, so line boundaries are record boundaries.
+ *
+ * Each split reads by its own {@link LineCursor}. All of them are closed by {@link #close()} of
+ * any split.
+ *
+ * @apiNote The charset must be ASCII compatible (e.g. UTF-8), so that line terminators can be found
+ *          in bytes directly.
+ * @author Dean Xu (XDean@github.com)
+ */
+public class LineSpliterator implements Spliterator<String>, Closeable {
+  private static final int MIN_SPLIT_BYTES = 64 * 1024;
+  private static final int SCAN_SIZE = 8 * 1024;
+
+  /**
+   * Open spliterator of all lines of the file.
+   */
+  public static LineSpliterator open(Path path, Charset charset) throws IOException {
+    FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+    Queue<Closeable> resources = new ConcurrentLinkedQueue<>();
+    resources.add(channel);
+    return new LineSpliterator(path, charset, channel, resources, 0, channel.size(), null);
+  }
+
+  private final Path path;
+  private final Charset charset;
+  private final FileChannel channel;
+  private final Queue<Closeable> resources;
+  private final long end;
+  private long position;
+  private LineCursor cursor;
+
+  private LineSpliterator(Path path, Charset charset, FileChannel channel, Queue<Closeable> resources, long position,
+      long end, LineCursor cursor) {
+    this.path = path;
+    this.charset = charset;
+    this.channel = channel;
+    this.resources = resources;
+    this.position = position;
+    this.end = end;
+    this.cursor = cursor;
+  }
+
+  /**
+   * The byte offset of the next line.
+   */
+  public long position() {
+    return position;
+  }
+
+  @Override
+  public boolean tryAdvance(Consumer<? super String> action) {
+    if (position >= end) {
+      return false;
+    }
+    try {
+      if (cursor == null) {
+        cursor = LineCursor.open(path, position, charset);
+        resources.add(cursor);
+      }
+      if (!cursor.next()) {
+        position = end;
+        return false;
+      }
+      position = cursor.end();
+      action.accept(cursor.line());
+      return true;
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * Split the remaining range at the line boundary nearest after the middle. The prefix is returned
+   * and takes over the current cursor.
+   */
+  @Override
+  public Spliterator<String> trySplit() {
+    if (end - position < MIN_SPLIT_BYTES) {
+      return null;
+    }
+    long boundary;
+    try {
+      boundary = lineStart(position + (end - position) / 2);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    if (boundary >= end) {
+      return null;
+    }
+    LineSpliterator prefix = new LineSpliterator(path, charset, channel, resources, position, boundary, cursor);
+    position = boundary;
+    cursor = null;
+    return prefix;
+  }
+
+  @Override
+  public long estimateSize() {
+    return end - position;
+  }
+
+  @Override
+  public int characteristics() {
+    return ORDERED | NONNULL;
+  }
+
+  @Override
+  public void close() throws IOException {
+    IOException error = null;
+    Closeable c;
+    while ((c = resources.poll()) != null) {
+      try {
+        c.close();
+      } catch (IOException e) {
+        if (error == null) {
+          error = e;
+        } else {
+          error.addSuppressed(e);
+        }
+      }
+    }
+    if (error != null) {
+      throw error;
+    }
+  }
+
+  /**
+   * Find the start of the first line at or after the position.
+   */
+  private long lineStart(long from) throws IOException {
+    ByteBuffer buffer = ByteBuffer.allocate(SCAN_SIZE);
+    long offset = from - 1;
+    while (offset < end) {
+      buffer.clear();
+      int read = channel.read(buffer, offset);
+      if (read <= 0) {
+        return end;
+      }
+      for (int i = 0; i < read; i++) {
+        byte b = buffer.get(i);
+        if (b == '\n') {
+          return offset + i + 1;
+        } else if (b == '\r') {
+          ByteBuffer next = ByteBuffer.allocate(1);
+          boolean crlf = i + 1 < read ? buffer.get(i + 1) == '\n'
+              : channel.read(next, offset + i + 1) == 1 && next.get(0) == '\n';
+          return offset + i + (crlf ? 2 : 1);
+        }
+      }
+      offset += read;
+    }
+    return end;
+  }
+}
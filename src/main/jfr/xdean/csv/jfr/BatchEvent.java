@@ -0,0 +1,53 @@
+package xdean.csv.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+@Name("xdean.csv.Batch")
+@Label("CSV Batch")
+@Description("Stage times of a batch of records in one thread")
+@Category("Fluent CSV")
+@Enabled(false)
+@StackTrace(false)
+class BatchEvent extends Event {
+  @Label("Records")
+  long records;
+
+  @Label("Chars")
+  @DataAmount
+  long chars;
+
+  @Label("Framing Time")
+  @Timespan
+  long framing;
+
+  @Label("Split Time")
+  @Timespan
+  long split;
+
+  @Label("Parse Time")
+  @Timespan
+  long parse;
+
+  @Label("Bind Time")
+  @Timespan
+  long bind;
+
+  @Label("Format Time")
+  @Timespan
+  long format;
+
+  @Label("Errors")
+  long errors;
+
+  @Label("Backpressure Time")
+  @Timespan
+  long backpressure;
+}
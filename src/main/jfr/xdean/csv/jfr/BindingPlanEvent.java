@@ -0,0 +1,25 @@
+package xdean.csv.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+@Name("xdean.csv.BindingPlan")
+@Label("CSV Binding Plan")
+@Description("Bean binding plan compiled")
+@Category("Fluent CSV")
+@Enabled(false)
+@StackTrace(false)
+class BindingPlanEvent extends Event {
+  @Label("Bean")
+  Class<?> bean;
+
+  @Label("Compile Time")
+  @Timespan
+  long time;
+}
@@ -0,0 +1,28 @@
+package xdean.csv.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+@Name("xdean.csv.Header")
+@Label("CSV Header")
+@Description("Header line resolved to columns")
+@Category("Fluent CSV")
+@Enabled(false)
+@StackTrace(false)
+class HeaderEvent extends Event {
+  @Label("Header")
+  String header;
+
+  @Label("Columns")
+  int columns;
+
+  @Label("Resolve Time")
+  @Timespan
+  long time;
+}
@@ -0,0 +1,122 @@
+package xdean.csv.jfr;
+
+import java.util.List;
+
+import jdk.jfr.EventType;
+import xdean.csv.CsvMetrics;
+
+/**
+ * Metrics that emits JDK Flight Recorder events. Batch event is committed every
+ * {@value #BATCH_RECORDS} records of a thread and when a read or write finishes. Slow row event is
+ * committed when a stage of a row takes more than the threshold.
+ *
+ * @apiNote Use {@link CsvMetrics#jfr(long)} to create it.
+ * @author Dean Xu (XDean@github.com)
+ */
+public final class JfrMetrics implements CsvMetrics {
+  private static final int BATCH_RECORDS = 1024;
+  private static final EventType HEADER = EventType.getEventType(HeaderEvent.class);
+  private static final EventType BINDING_PLAN = EventType.getEventType(BindingPlanEvent.class);
+  private static final EventType SLOW_ROW = EventType.getEventType(SlowRowEvent.class);
+  private static final EventType BATCH = EventType.getEventType(BatchEvent.class);
+
+  private final long slowRowNanos;
+  private final ThreadLocal<BatchEvent> batch = ThreadLocal.withInitial(() -> {
+    BatchEvent event = new BatchEvent();
+    event.begin();
+    return event;
+  });
+
+  public JfrMetrics(long slowRowNanos) {
+    this.slowRowNanos = slowRowNanos;
+  }
+
+  @Override
+  public void onRecord(int chars) {
+    if (BATCH.isEnabled()) {
+      BatchEvent event = batch.get();
+      event.records++;
+      event.chars += chars;
+      if (event.records == BATCH_RECORDS) {
+        event.commit();
+        batch.remove();
+      }
+    }
+  }
+
+  @Override
+  public void onStage(Stage stage, long nanos) {
+    if (stage != Stage.FRAMING && nanos > slowRowNanos && SLOW_ROW.isEnabled()) {
+      SlowRowEvent event = new SlowRowEvent();
+      event.stage = stage.name();
+      event.time = nanos;
+      event.commit();
+    }
+    if (BATCH.isEnabled()) {
+      BatchEvent event = batch.get();
+      switch (stage) {
+      case FRAMING:
+        event.framing += nanos;
+        break;
+      case SPLIT:
+        event.split += nanos;
+        break;
+      case PARSE:
+        event.parse += nanos;
+        break;
+      case BIND:
+        event.bind += nanos;
+        break;
+      case FORMAT:
+        event.format += nanos;
+        break;
+      }
+    }
+  }
+
+  @Override
+  public void onError(Stage stage) {
+    if (BATCH.isEnabled()) {
+      batch.get().errors++;
+    }
+  }
+
+  @Override
+  public void onBackpressure(long nanos) {
+    if (BATCH.isEnabled()) {
+      batch.get().backpressure += nanos;
+    }
+  }
+
+  @Override
+  public void onFinish() {
+    if (BATCH.isEnabled()) {
+      BatchEvent event = batch.get();
+      if (event.records > 0 || event.errors > 0) {
+        event.commit();
+      }
+      batch.remove();
+    }
+  }
+
+  @Override
+  public void onHeader(List<String> header, long nanos) {
+    if (HEADER.isEnabled()) {
+      HeaderEvent event = new HeaderEvent();
+      event.header = String.join(",", header);
+      event.columns = header.size();
+      event.time = nanos;
+      event.commit();
+    }
+  }
+
+  @Override
+  public void onBindingPlan(Class<?> bean, long nanos) {
+    if (BINDING_PLAN.isEnabled()) {
+      BindingPlanEvent event = new BindingPlanEvent();
+      event.bean = bean;
+      event.time = nanos;
+      event.commit();
+    }
+  }
+}
@@ -0,0 +1,23 @@
+package xdean.csv.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+@Name("xdean.csv.SlowRow")
+@Label("CSV Slow Row")
+@Description("Row whose processing stage takes longer than the threshold")
+@Category("Fluent CSV")
+@Enabled(false)
+class SlowRowEvent extends Event {
+  @Label("Stage")
+  String stage;
+
+  @Label("Stage Time")
+  @Timespan
+  long time;
+}
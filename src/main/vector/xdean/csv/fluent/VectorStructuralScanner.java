@@ -0,0 +1,45 @@
+package xdean.csv.fluent;
+
+import jdk.incubator.vector.ShortVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * {@link StructuralScanner} compares a vector of characters with the structural characters at a
+ * time, i.e. 32 or 64 bytes on AVX2 or AVX-512.
+ *
+ * @author Dean Xu (XDean@github.com)
+ */
+final class VectorStructuralScanner implements StructuralScanner {
+  private static final VectorSpecies<Short> SPECIES = ShortVector.SPECIES_PREFERRED;
+
+  private final char splitor;
+  private final char quoter;
+  private final char escaper;
+
+  public VectorStructuralScanner(char splitor, char quoter, char escaper) {
+    this.splitor = splitor;
+    this.quoter = quoter;
+    this.escaper = escaper;
+  }
+
+  @Override
+  public int next(char[] buffer, int from, int to) {
+    int i = from;
+    int bound = from + SPECIES.loopBound(to - from);
+    for (; i < bound; i += SPECIES.length()) {
+      ShortVector v = ShortVector.fromCharArray(SPECIES, buffer, i);
+      VectorMask<Short> mask = v.eq((short) splitor).or(v.eq((short) quoter)).or(v.eq((short) escaper));
+      if (mask.anyTrue()) {
+        return i + mask.firstTrue();
+      }
+    }
+    for (; i < to; i++) {
+      char c = buffer[i];
+      if (c == splitor || c == quoter || c == escaper) {
+        return i;
+      }
+    }
+    return to;
+  }
+}
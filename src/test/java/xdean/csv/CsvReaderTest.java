@@ -7,19 +7,36 @@ import static org.junit.Assert.*;
 import static xdean.csv.CsvColumn.create;
 import static xdean.jex.util.lang.ExceptionUtil.throwIt;
 
+import java.io.ByteArrayInputStream;
+import java.io.StringReader;
 import java.lang.annotation.Retention;
 import java.lang.annotation.Target;
 import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import org.junit.Before;
 import org.junit.Ignore;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
 import com.google.common.collect.ImmutableMap;
 
+import io.reactivex.Flowable;
+import io.reactivex.subscribers.TestSubscriber;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
@@ -28,12 +45,17 @@ import xdean.csv.CsvReaderTest.Person.House;
 import xdean.csv.annotation.CSV;
 import xdean.csv.annotation.CsvConfig;
 import xdean.csv.fluent.FluentCSV;
+import xdean.csv.io.CsvCheckpoint;
+import xdean.csv.io.CsvCheckpoint.Checkpointed;
 
 public class CsvReaderTest {
   private static final Person dean = new Person(1, "DEAN", 100, House.NO, "", false);
   private static final Person wenzhe = new Person(2, "WEN-ZHE", 888, House.YES, "", false);
   private static final Person xian = new Person(3, "XIAN", 998, House.YES, "manager", false);
 
+  @Rule
+  public TemporaryFolder temp = new TemporaryFolder();
+
   CsvConfiguration reader;
   Path golden;
 
@@ -235,6 +257,451 @@ public class CsvReaderTest {
         .assertError(e -> e.getMessage().contains("cannot be escaped"));
   }
 
+  @Test
+  public void testDictionary() throws Exception {
+    CsvColumn<String> country = create("country", CsvValueParser.STRING).withDictionary(1);
+    List<Map<CsvColumn<?>, Object>> values = reader
+        .addColumn(country)
+        .readMap()
+        .from("country\nCN\nCN\nUS\nUS")
+        .toList()
+        .blockingGet();
+    assertEquals(4, values.size());
+    assertSame(values.get(0).get(country), values.get(1).get(country));
+    assertEquals(values.get(2).get(country), values.get(3).get(country));
+    assertNotSame(values.get(2).get(country), values.get(3).get(country));
+  }
+
+  @Test
+  public void testSnapshotDictionary() throws Exception {
+    Path file = temp.newFile("dictionary.csv").toPath();
+    Files.write(file, Arrays.asList("country", "CN", "CN", "US"));
+    CsvColumn<String> country = create("country", CsvValueParser.STRING).withDictionary(16);
+    CsvReader<Map<CsvColumn<?>, Object>> mapReader = reader.snapshot(true).addColumn(country).readMap();
+    mapReader.from(file)
+        .test()
+        .assertNoErrors();
+    assertTrue(Files.exists(file.resolveSibling("dictionary.csv.snapshot")));
+    List<Map<CsvColumn<?>, Object>> values = mapReader.from(file).toList().blockingGet();
+    assertEquals(3, values.size());
+    assertEquals("CN", values.get(0).get(country));
+    assertSame(values.get(0).get(country), values.get(1).get(country));
+    assertEquals("US", values.get(2).get(country));
+  }
+
+  @Test
+  public void testSnapshot() throws Exception {
+    Path file = temp.newFile("snapshot.csv").toPath();
+    Files.write(file, Arrays.asList("a,b", "1,2", "3,"));
+    CsvReader<C> beanReader = reader.snapshot(true).readBean(C.class);
+    beanReader.from(file)
+        .test()
+        .assertNoErrors()
+        .assertValues(new C(1, 2f, 0), new C(3, 3.14f, 0));
+    assertTrue(Files.exists(file.resolveSibling("snapshot.csv.snapshot")));
+    beanReader.from(file)
+        .test()
+        .assertNoErrors()
+        .assertValues(new C(1, 2f, 0), new C(3, 3.14f, 0));
+    Files.write(file, Arrays.asList("a,b", "5,6"));
+    beanReader.from(file)
+        .test()
+        .assertNoErrors()
+        .assertValues(new C(5, 6f, 0));
+  }
+
+  @Test
+  public void testSnapshotTruncated() throws Exception {
+    Path file = temp.newFile("truncated.csv").toPath();
+    Files.write(file, Arrays.asList("a,b", "1,2", "3,"));
+    Path snapshot = file.resolveSibling("truncated.csv.snapshot");
+    CsvReader<C> beanReader = reader.snapshot(true).readBean(C.class);
+    beanReader.from(file)
+        .test()
+        .assertNoErrors();
+    byte[] bytes = Files.readAllBytes(snapshot);
+    Files.write(snapshot, Arrays.copyOf(bytes, bytes.length - 3));
+    beanReader.from(file)
+        .test()
+        .assertNoErrors()
+        .assertValues(new C(1, 2f, 0), new C(3, 3.14f, 0));
+  }
+
+  @Test
+  public void testSnapshotCorrupted() throws Exception {
+    Path file = temp.newFile("corrupted.csv").toPath();
+    Files.write(file, Arrays.asList("a,b", "1,2", "3,"));
+    Path snapshot = file.resolveSibling("corrupted.csv.snapshot");
+    CsvReader<C> beanReader = reader.snapshot(true).readBean(C.class);
+    beanReader.from(file)
+        .test()
+        .assertNoErrors();
+    byte[] bytes = Files.readAllBytes(snapshot);
+    for (int i = bytes.length - 4; i < bytes.length; i++) {
+      bytes[i] ^= 0xFF;
+    }
+    Files.write(snapshot, bytes);
+    beanReader.from(file)
+        .test()
+        .assertNoErrors()
+        .assertValues(new C(1, 2f, 0), new C(3, 3.14f, 0));
+  }
+
+  @Test
+  public void testSnapshotParserChanged() throws Exception {
+    Path file = temp.newFile("parser.csv").toPath();
+    Files.write(file, Arrays.asList("a", "1", "2"));
+    CsvValueParser<Integer> tenfold = CsvValueParser.create(Integer.class, v -> Integer.valueOf(v) * 10);
+    CsvValueParser<Integer> hundredfold = CsvValueParser.create(Integer.class, v -> Integer.valueOf(v) * 100);
+    Path snapshot = file.resolveSibling("parser.csv.snapshot");
+    FluentCSV.create().snapshot(true).addColumn(CsvColumn.create("a", tenfold)).readList().from(file)
+        .test()
+        .assertNoErrors();
+    assertFalse(Files.exists(snapshot));
+    FluentCSV.create().snapshot("1").addColumn(CsvColumn.create("a", tenfold)).readList().from(file)
+        .test()
+        .assertNoErrors()
+        .assertValues(Arrays.asList(10), Arrays.asList(20));
+    assertTrue(Files.exists(snapshot));
+    FluentCSV.create().snapshot(true).addColumn(CsvColumn.create("a", hundredfold)).readList().from(file)
+        .test()
+        .assertNoErrors()
+        .assertValues(Arrays.asList(100), Arrays.asList(200));
+    FluentCSV.create().snapshot("2").addColumn(CsvColumn.create("a", hundredfold)).readList().from(file)
+        .test()
+        .assertNoErrors()
+        .assertValues(Arrays.asList(100), Arrays.asList(200));
+    FluentCSV.create().snapshot("2").addColumn(CsvColumn.create("a", hundredfold)).readList().from(file)
+        .test()
+        .assertNoErrors()
+        .assertValues(Arrays.asList(100), Arrays.asList(200));
+  }
+
+  @Test
+  public void testSnapshotErrorPolicy() throws Exception {
+    Path file = temp.newFile("policy.csv").toPath();
+    Files.write(file, Arrays.asList("a", "1", "N/A", "3"));
+    Path snapshot = file.resolveSibling("policy.csv.snapshot");
+    List<String> errors = new ArrayList<>();
+    FluentCSV.create().snapshot(true)
+        .errorPolicy(CsvErrorPolicy.SKIP_ROW)
+        .errorSink((row, column, text, error) -> errors.add(text))
+        .addColumn(CsvColumn.create("a", CsvValueParser.INT))
+        .readList()
+        .from(file)
+        .test()
+        .assertNoErrors()
+        .assertValues(Arrays.asList(1), Arrays.asList(3));
+    assertEquals(Arrays.asList("N/A"), errors);
+    assertFalse(Files.exists(snapshot));
+    FluentCSV.create().snapshot(true)
+        .addColumn(CsvColumn.create("a", CsvValueParser.INT))
+        .readList()
+        .from(file)
+        .test()
+        .assertError(CsvException.class);
+  }
+
+  @Test
+  public void testRows() throws Exception {
+    Path file = temp.newFile("rows.csv").toPath();
+    Files.write(file, Arrays.asList("a,b", "1,1", "2,2", "# comment", "3,3", "4,4"));
+    reader.readBean(A.class)
+        .rows(file, 1, 3)
+        .test()
+        .assertNoErrors()
+        .assertValues(new A(2, 2f, 0), new A(3, 3f, 0));
+    reader.readBean(A.class)
+        .fromRow(file, 3)
+        .test()
+        .assertNoErrors()
+        .assertValues(new A(4, 4f, 0));
+  }
+
+  @Test
+  public void testFollow() throws Exception {
+    Path file = temp.newFile("follow.csv").toPath();
+    Files.write(file, Arrays.asList("a,b", "1,1"));
+    TestSubscriber<A> test = reader.readBean(A.class)
+        .follow(file, 10)
+        .test();
+    test.awaitCount(1);
+    Files.write(file, "2,2\n3,".getBytes(), StandardOpenOption.APPEND);
+    test.awaitCount(2);
+    Thread.sleep(50);
+    test.assertValueCount(2);
+    Files.write(file, "3\n".getBytes(), StandardOpenOption.APPEND);
+    test.awaitCount(3);
+    Files.write(file, Arrays.asList("a,b", "4,4"));
+    test.awaitCount(4)
+        .assertNoErrors()
+        .assertNotComplete()
+        .assertValues(new A(1, 1f, 0), new A(2, 2f, 0), new A(3, 3f, 0), new A(4, 4f, 0))
+        .dispose();
+  }
+
+  @Test
+  public void testCheckpoint() throws Exception {
+    Path file = temp.newFile("checkpoint.csv").toPath();
+    Files.write(file, Arrays.asList("# comment", "a,b", "1,1", "# comment", "2,2", "3,3"));
+    List<Checkpointed<A>> list = reader.readBean(A.class)
+        .checkpointed(file)
+        .toList()
+        .blockingGet();
+    assertEquals(3, list.size());
+    CsvCheckpoint checkpoint = list.get(0).checkpoint();
+    assertEquals(1, checkpoint.record());
+    reader.readBean(A.class)
+        .from(file, checkpoint)
+        .test()
+        .assertNoErrors()
+        .assertValues(new A(2, 2f, 0), new A(3, 3f, 0));
+    reader.readBean(A.class)
+        .from(file, new CsvCheckpoint(checkpoint.offset() + 1, 1, checkpoint.header()))
+        .test()
+        .assertError(CsvException.class);
+    Files.write(file, Arrays.asList("a,c", "1,1"));
+    reader.readBean(A.class)
+        .from(file, checkpoint)
+        .test()
+        .assertError(CsvException.class);
+  }
+
+  @Test
+  public void testErrorPolicy() throws Exception {
+    String input = "a,b\n1,1\nN/A,2\n3,-\n4,\"4\n5,5";
+    List<String> errors = new ArrayList<>();
+    CsvErrorSink sink = (row, column, text, error) -> {
+      assertEquals(0, error.getStackTrace().length);
+      errors.add(row + ":" + (column == null ? "" : column.name()) + ":" + text);
+    };
+    reader.quoter('"')
+        .errorPolicy(CsvErrorPolicy.SKIP_ROW)
+        .errorSink(sink)
+        .readBean(A.class)
+        .from(input)
+        .test()
+        .assertNoErrors()
+        .assertValues(new A(1, 1f, 0), new A(5, 5f, 0));
+    assertEquals(Arrays.asList("1:a:N/A", "2:b:-", "3::4,\"4"), errors);
+  }
+
+  @Test
+  public void testErrorPolicySubstitute() throws Exception {
+    reader.addColumn(CsvColumn.create("a", CsvValueParser.INT, () -> -1, false))
+        .errorPolicy(CsvErrorPolicy.SUBSTITUTE_DEFAULT)
+        .readList()
+        .from("a\n1\nN/A\n3")
+        .test()
+        .assertNoErrors()
+        .assertValues(Arrays.asList(1), Arrays.asList(-1), Arrays.asList(3));
+    FluentCSV.create()
+        .addColumn(CsvColumn.create("a", CsvValueParser.INT))
+        .readList()
+        .from("a\n1\nN/A")
+        .test()
+        .assertError(NumberFormatException.class);
+  }
+
+  @Test
+  public void testMetrics() throws Exception {
+    CsvMetrics.Counter metrics = CsvMetrics.counter();
+    reader.metrics(metrics)
+        .errorPolicy(CsvErrorPolicy.SKIP_ROW)
+        .readBean(A.class)
+        .from("a,b\n1,1\nx,2\n3,3")
+        .test()
+        .assertNoErrors()
+        .assertValueCount(2);
+    assertEquals(2, metrics.records());
+    assertEquals(8, metrics.chars());
+    assertEquals(1, metrics.errors(CsvMetrics.Stage.PARSE));
+    assertTrue(metrics.nanos(CsvMetrics.Stage.SPLIT) > 0);
+    assertTrue(metrics.nanos(CsvMetrics.Stage.PARSE) > 0);
+    assertTrue(metrics.nanos(CsvMetrics.Stage.BIND) > 0);
+    assertTrue(metrics.nanos(CsvMetrics.Stage.FRAMING) > 0);
+  }
+
+  @Test
+  public void testProfiler() throws Exception {
+    CsvProfiler profiler = CsvProfiler.sampling(1);
+    CsvValueParser<String> slow = CsvValueParser.create(String.class, v -> {
+      LockSupport.parkNanos(100_000);
+      return v;
+    });
+    reader.profiler(profiler)
+        .errorPolicy(CsvErrorPolicy.SUBSTITUTE_DEFAULT)
+        .addColumn(CsvColumn.create("a", CsvValueParser.INT))
+        .addColumn(CsvColumn.create("b", slow))
+        .addColumn(CsvColumn.create("c", CsvValueParser.INT, () -> -1, false))
+        .readList()
+        .from("a,b,c\n1,x,1\nN/A,y,N/A\n3,z,3")
+        .test()
+        .assertNoErrors()
+        .assertValueCount(3);
+    List<CsvProfiler.ColumnReport> report = profiler.report();
+    assertEquals("b", report.get(0).column());
+    assertEquals(3, report.get(0).samples());
+    assertEquals(0, report.get(0).failures());
+    for (String name : new String[] { "a", "c" }) {
+      CsvProfiler.ColumnReport column = report.stream().filter(r -> r.column().equals(name)).findFirst().get();
+      assertEquals(3, column.samples());
+      assertEquals(1, column.failures());
+    }
+    assertTrue(profiler.toString().contains("avg nanos"));
+  }
+
+  @Test
+  public void testBatched() throws Exception {
+    reader.readBean(Person.class)
+        .fromBatched(golden, 2)
+        .test()
+        .assertNoErrors()
+        .assertValues(Arrays.asList(dean, wenzhe), Arrays.asList(xian));
+    reader.errorPolicy(CsvErrorPolicy.SKIP_ROW)
+        .readBean(A.class)
+        .fromBatched(Flowable.just("# c", "a,b", "1,1", "x,2", "3,3"), 2)
+        .test()
+        .assertNoErrors()
+        .assertValues(Arrays.asList(new A(1, 1f, 0)), Arrays.asList(new A(3, 3f, 0)));
+  }
+
+  @Test
+  public void testStream() throws Exception {
+    try (Stream<Person> stream = reader.readBean(Person.class).stream(golden)) {
+      assertEquals(Arrays.asList(dean, wenzhe, xian), stream.collect(Collectors.toList()));
+    }
+    Path file = temp.newFile("stream.csv").toPath();
+    List<String> lines = new ArrayList<>();
+    lines.add("a,b");
+    IntStream.range(0, 100_000).forEach(i -> lines.add(i + "," + i));
+    Files.write(file, lines);
+    try (Stream<A> stream = FluentCSV.create().readBean(A.class).stream(file)) {
+      assertEquals(4_999_950_000L, stream.parallel().mapToLong(a -> a.a).sum());
+    }
+  }
+
+  @Test
+  public void testReuse() throws Exception {
+    List<Map<CsvColumn<?>, Object>> maps = new ArrayList<>();
+    List<Map<CsvColumn<?>, Object>> copies = new ArrayList<>();
+    reader.reuse(true)
+        .addColumns(B.A, B.B)
+        .readMap()
+        .from("a,b\n1,2\n3,")
+        .doOnNext(m -> {
+          maps.add(m);
+          copies.add(new HashMap<>(m));
+        })
+        .test()
+        .assertNoErrors();
+    assertSame(maps.get(0), maps.get(1));
+    assertEquals(Arrays.asList(B.asMap(1, 2f), ImmutableMap.of(B.A, 3)), copies);
+    List<A> beans = new ArrayList<>();
+    List<A> beanCopies = new ArrayList<>();
+    FluentCSV.create()
+        .reuse(true)
+        .readBean(A.class)
+        .from("a,b\n1,1\n,2")
+        .doOnNext(a -> {
+          beans.add(a);
+          beanCopies.add(new A(a.a, a.b, a.c));
+        })
+        .test()
+        .assertNoErrors();
+    assertSame(beans.get(0), beans.get(1));
+    assertEquals(Arrays.asList(new A(1, 1f, 0), new A(0, 2f, 0)), beanCopies);
+    List<G> boxedCopies = new ArrayList<>();
+    FluentCSV.create()
+        .reuse(true)
+        .readBean(G.class)
+        .from("a,b\n1,true\n,")
+        .doOnNext(g -> boxedCopies.add(new G(g.a, g.b)))
+        .test()
+        .assertNoErrors();
+    assertEquals(Arrays.asList(new G(1, true), new G(null, null)), boxedCopies);
+  }
+
+  @Test
+  public void testTokenize() throws Exception {
+    List<String> header = new ArrayList<>();
+    List<List<String>> records = new ArrayList<>();
+    long count = reader.quoter('\'')
+        .escaper('/')
+        .tokenize(new StringReader("# c\r\na, b\r\n1, 'x,y'\n2,a/,b\r3,\n"), new CsvRecordHandler() {
+          @Override
+          public void header(List<String> names) {
+            header.addAll(names);
+          }
+
+          @Override
+          public void startRecord() {
+            records.add(new ArrayList<>());
+          }
+
+          @Override
+          public void field(int column, char[] buffer, int offset, int length) {
+            records.get(records.size() - 1).add(new String(buffer, offset, length));
+          }
+        });
+    assertEquals(3, count);
+    assertEquals(Arrays.asList("a", "b"), header);
+    assertEquals(Arrays.asList(Arrays.asList("1", "x,y"), Arrays.asList("2", "a,b"), Arrays.asList("3", "")), records);
+  }
+
+  @Test
+  public void testTokenizeBytes() throws Exception {
+    List<String> header = new ArrayList<>();
+    List<List<String>> records = new ArrayList<>();
+    byte[] input = "\uFEFF# c\r\na, b\r\n1, '\u00e9,\u4e2d'\n2,a/,b\r3,\n".getBytes(StandardCharsets.UTF_8);
+    long count = reader.quoter('\'')
+        .escaper('/')
+        .tokenize(new ByteArrayInputStream(input), StandardCharsets.UTF_8, new CsvByteRecordHandler() {
+          @Override
+          public void header(List<String> names) {
+            header.addAll(names);
+          }
+
+          @Override
+          public void startRecord() {
+            records.add(new ArrayList<>());
+          }
+
+          @Override
+          public void field(int column, byte[] buffer, int offset, int length) {
+            records.get(records.size() - 1).add(new String(buffer, offset, length, StandardCharsets.UTF_8));
+          }
+        });
+    assertEquals(3, count);
+    assertEquals(Arrays.asList("a", "b"), header);
+    assertEquals(Arrays.asList(Arrays.asList("1", "\u00e9,\u4e2d"), Arrays.asList("2", "a,b"), Arrays.asList("3", "")),
+        records);
+  }
+
+  @Test
+  public void testDialect() throws Exception {
+    CsvColumn<String> a = CsvColumn.create("a", CsvValueParser.STRING);
+    CsvColumn<String> b = CsvColumn.create("b", CsvValueParser.STRING);
+    FluentCSV.create()
+        .splitor('\t')
+        .escaper(CsvConfiguration.NO_ESCAPER)
+        .addColumns(a, b)
+        .readMap()
+        .from("a\tb\n C:\\x\t'y'\n")
+        .test()
+        .assertNoErrors()
+        .assertValues(ImmutableMap.of(a, "C:\\x", b, "'y'"));
+    FluentCSV.create()
+        .quoter('\'')
+        .escaper(CsvConfiguration.NO_ESCAPER)
+        .addColumns(a, b)
+        .readMap()
+        .from("a,b\n'x,\\',y")
+        .test()
+        .assertNoErrors()
+        .assertValues(ImmutableMap.of(a, "x,\\", b, "y"));
+  }
+
   @Ignore
   @Test
   public void testWrongMethod() throws Exception {
@@ -344,6 +811,20 @@ public class CsvReaderTest {
     String b;
   }
 
+  @EqualsAndHashCode
+  @NoArgsConstructor
+  @AllArgsConstructor
+  static class G {
+    @CSV
+    Integer a;
+    Boolean b;
+
+    @CSV
+    public void setB(Boolean b) {
+      this.b = b;
+    }
+  }
+
   static class WrongParser {
     @CSV
     WrongParser twp;
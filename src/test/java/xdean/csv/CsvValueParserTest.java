@@ -0,0 +1,131 @@
+package xdean.csv;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableMap;
+
+public class CsvValueParserTest {
+  @Test
+  public void testTryParse() throws Exception {
+    assertEquals(Integer.valueOf(123), CsvValueParser.INT.tryParse("123"));
+    assertEquals(Integer.valueOf(-123), CsvValueParser.INT.tryParse("-123"));
+    assertEquals(Integer.valueOf(123), CsvValueParser.INT.tryParse("+123"));
+    assertEquals(Integer.valueOf(Integer.MIN_VALUE), CsvValueParser.INT.tryParse("-2147483648"));
+    assertNull(CsvValueParser.INT.tryParse("2147483648"));
+    assertNull(CsvValueParser.INT.tryParse("N/A"));
+    assertNull(CsvValueParser.INT.tryParse("-"));
+    assertNull(CsvValueParser.INT.tryParse(""));
+    assertEquals(Integer.valueOf(12), CsvValueParser.INT.tryParse("\u0661\u0662"));
+    assertEquals(Long.valueOf(Long.MAX_VALUE), CsvValueParser.LONG.tryParse("9223372036854775807"));
+    assertEquals(Long.valueOf(Long.MIN_VALUE), CsvValueParser.LONG.tryParse("-9223372036854775808"));
+    assertNull(CsvValueParser.LONG.tryParse("9223372036854775808"));
+    assertNull(CsvValueParser.LONG.tryParse("1.0"));
+    assertEquals(Double.valueOf(1.5), CsvValueParser.DOUBLE.tryParse(" 1.5 "));
+    assertEquals(Double.valueOf(Double.NaN), CsvValueParser.DOUBLE.tryParse("NaN"));
+    assertEquals(Float.valueOf(Float.NEGATIVE_INFINITY), CsvValueParser.FLOAT.tryParse("-Infinity"));
+    assertNull(CsvValueParser.DOUBLE.tryParse("N/A"));
+    assertNull(CsvValueParser.DOUBLE.tryParse("1.5x"));
+    assertNull(CsvValueParser.forEnum(Thread.State.class).tryParse("RUN"));
+  }
+
+  @Test
+  public void testEnum() throws Exception {
+    CsvValueParser<TimeUnit> parser = CsvValueParser.forEnum(TimeUnit.class);
+    for (TimeUnit unit : TimeUnit.values()) {
+      assertEquals(unit, parser.parse(unit.name()));
+      assertEquals(unit.name(), CsvValueFormatter.forEnum(TimeUnit.class).format(unit));
+    }
+    assertNull(parser.tryParse("seconds"));
+    assertNull(parser.tryParse(""));
+    assertEquals(TimeUnit.DAYS, CsvValueParser.forType(TimeUnit.class).parse("DAYS"));
+    CsvValueParser<TimeUnit> lenient = CsvValueParser.forEnum(TimeUnit.class, true, ImmutableMap.of("ms", TimeUnit.MILLISECONDS));
+    assertEquals(TimeUnit.SECONDS, lenient.parse("seconds"));
+    assertEquals(TimeUnit.MILLISECONDS, lenient.parse("MS"));
+    assertNull(lenient.tryParse("sec"));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testEnumNotFound() throws Exception {
+    CsvValueParser.forEnum(TimeUnit.class).parse("WEEKS");
+  }
+
+  @Test(expected = CsvException.class)
+  public void testEnumAmbiguousAlias() throws Exception {
+    CsvValueParser.forEnum(TimeUnit.class, true, ImmutableMap.of("Days", TimeUnit.HOURS));
+  }
+
+  @Test
+  public void testBigNumber() throws Exception {
+    for (String text : new String[] { "0", "-1.50", "+3.14159", ".5", "1.", "123456789012345678",
+        "1234567890.12345678901", "1E+3", "-2.5e-7", "\u0661\u0662" }) {
+      assertEquals(text, new BigDecimal(text), CsvValueParser.BIG_DECIMAL.parse(text));
+      assertEquals(text, new BigDecimal(text), CsvValueParser.BIG_DECIMAL.tryParse(text));
+    }
+    assertEquals(2, CsvValueParser.BIG_DECIMAL.parse("-1.50").scale());
+    assertNull(CsvValueParser.BIG_DECIMAL.tryParse("1.2.3"));
+    assertNull(CsvValueParser.BIG_DECIMAL.tryParse("."));
+    assertNull(CsvValueParser.BIG_DECIMAL.tryParse(""));
+    for (String text : new String[] { "0", "-42", "9223372036854775807", "-9223372036854775808",
+        "123456789012345678901234567890" }) {
+      assertEquals(new BigInteger(text), CsvValueParser.BIG_INTEGER.parse(text));
+      assertEquals(text, CsvValueFormatter.BIG_INTEGER.format(new BigInteger(text)));
+    }
+    assertNull(CsvValueParser.BIG_INTEGER.tryParse("1.0"));
+    assertEquals("-1.50", CsvValueFormatter.forType(BigDecimal.class).format(new BigDecimal("-1.50")));
+  }
+
+  @Test
+  public void testJavaTime() throws Exception {
+    assertEquals(LocalDate.of(2018, 2, 28), CsvValueParser.LOCAL_DATE.parse("2018-02-28"));
+    assertEquals(LocalDate.of(10000, 1, 1), CsvValueParser.LOCAL_DATE.parse("+10000-01-01"));
+    assertNull(CsvValueParser.LOCAL_DATE.tryParse("2018-02-30"));
+    assertNull(CsvValueParser.LOCAL_DATE.tryParse("2018/02/28"));
+    assertEquals(LocalDateTime.of(2018, 2, 28, 1, 2, 3, 450_000_000),
+        CsvValueParser.LOCAL_DATE_TIME.parse("2018-02-28T01:02:03.45"));
+    assertEquals(LocalDateTime.of(2018, 2, 28, 1, 2), CsvValueParser.LOCAL_DATE_TIME.parse("2018-02-28T01:02"));
+    assertEquals(Instant.ofEpochSecond(1519779723), CsvValueParser.INSTANT.parse("2018-02-28T01:02:03Z"));
+    assertNull(CsvValueParser.INSTANT.tryParse("2018-02-28T01:02:03"));
+    assertEquals(OffsetDateTime.of(2018, 2, 28, 1, 2, 3, 0, ZoneOffset.ofHours(8)),
+        CsvValueParser.OFFSET_DATE_TIME.parse("2018-02-28T01:02:03+08:00"));
+    assertEquals(OffsetDateTime.of(2018, 2, 28, 1, 2, 3, 0, ZoneOffset.ofHoursMinutesSeconds(1, 2, 3)),
+        CsvValueParser.OFFSET_DATE_TIME.parse("2018-02-28T01:02:03+01:02:03"));
+
+    for (String text : new String[] { "2018-02-28T01:02:03", "2018-02-28T01:02:03.450", "2018-02-28T01:02:03.000000001" }) {
+      assertEquals(text, CsvValueFormatter.LOCAL_DATE_TIME.format(CsvValueParser.LOCAL_DATE_TIME.parse(text)));
+    }
+    assertEquals("2018-02-28T01:02:03.123456Z", CsvValueFormatter.INSTANT.format(Instant.parse("2018-02-28T01:02:03.123456Z")));
+    assertEquals("2018-02-28T01:02:03+08:00",
+        CsvValueFormatter.OFFSET_DATE_TIME.format(OffsetDateTime.of(2018, 2, 28, 1, 2, 3, 0, ZoneOffset.ofHours(8))));
+    assertEquals("+10000-01-01", CsvValueFormatter.forType(LocalDate.class).format(LocalDate.of(10000, 1, 1)));
+    assertEquals("-0001-12-31", CsvValueFormatter.LOCAL_DATE.format(LocalDate.of(-1, 12, 31)));
+    Instant farInstant = LocalDateTime.of(10000, 1, 1, 0, 0).toInstant(ZoneOffset.UTC);
+    assertEquals("+10000-01-01T00:00:00Z", CsvValueFormatter.INSTANT.format(farInstant));
+    assertEquals(farInstant, CsvValueParser.INSTANT.parse(CsvValueFormatter.INSTANT.format(farInstant)));
+    OffsetDateTime farOffset = OffsetDateTime.of(10000, 1, 1, 0, 0, 0, 0, ZoneOffset.ofHours(8));
+    assertEquals("+10000-01-01T00:00:00+08:00", CsvValueFormatter.OFFSET_DATE_TIME.format(farOffset));
+    assertEquals(farOffset, CsvValueParser.OFFSET_DATE_TIME.parse(CsvValueFormatter.OFFSET_DATE_TIME.format(farOffset)));
+
+    assertEquals(LocalDate.of(2018, 2, 28), CsvValueParser.forType(LocalDate.class, "yyyy/MM/dd").parse("2018/02/28"));
+    assertEquals("2018/02/28", CsvValueFormatter.forType(LocalDate.class, "yyyy/MM/dd").format(LocalDate.of(2018, 2, 28)));
+    assertEquals(Instant.ofEpochSecond(1519779723),
+        CsvValueParser.forPattern(Instant.class, "yyyyMMddHHmmss").parse("20180228010203"));
+  }
+
+  @Test(expected = CsvException.class)
+  public void testPatternOnWrongType() throws Exception {
+    CsvValueParser.forPattern(Integer.class, "yyyy");
+  }
+}
@@ -1,9 +1,14 @@
 package xdean.csv;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 import static xdean.jex.util.lang.ExceptionUtil.throwIt;
 
+import java.time.Instant;
+import java.time.LocalDate;
 import java.util.Arrays;
 import java.util.Comparator;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -39,6 +44,66 @@ public class CsvWriterTest {
             "3,4");
   }
 
+  @Test
+  public void testTimePattern() throws Exception {
+    T t = new T(LocalDate.of(2018, 2, 28), Instant.ofEpochSecond(1519779723));
+    writer
+        .writeBean(T.class)
+        .from(t)
+        .test()
+        .assertNoErrors()
+        .assertValues("date,time", "2018/02/28,2018-02-28T01:02:03Z");
+    writer
+        .readBean(T.class)
+        .from("date,time\n2018/02/28,2018-02-28T01:02:03Z")
+        .test()
+        .assertNoErrors()
+        .assertValues(t);
+  }
+
+  @Test
+  public void testEnum() throws Exception {
+    CsvColumn<Thread.State> state = CsvColumn.create("state", CsvValueFormatter.forType(Thread.State.class));
+    writer.addColumn(state)
+        .writeMap()
+        .from(ImmutableMap.of(state, Thread.State.NEW), ImmutableMap.of(state, Thread.State.BLOCKED),
+            ImmutableMap.of(state, Thread.State.NEW))
+        .test()
+        .assertNoErrors()
+        .assertValues("state", "NEW", "BLOCKED", "NEW");
+  }
+
+  @Test
+  public void testEnumCustomFormatter() throws Exception {
+    AtomicInteger count = new AtomicInteger();
+    CsvColumn<Thread.State> state = CsvColumn.create("state",
+        CsvValueFormatter.create(Thread.State.class, s -> s.name() + count.incrementAndGet()));
+    writer.addColumn(state)
+        .writeMap()
+        .from(ImmutableMap.of(state, Thread.State.NEW), ImmutableMap.of(state, Thread.State.NEW))
+        .test()
+        .assertNoErrors()
+        .assertValues("state", "NEW1", "NEW2");
+  }
+
+  @Test
+  public void testMetrics() throws Exception {
+    CsvMetrics.Counter metrics = CsvMetrics.counter();
+    writer.metrics(metrics)
+        .writeBean(A.class)
+        .from(new A(1, 2), new A(3, 4))
+        .test(1)
+        .assertValues("a,b")
+        .requestMore(2)
+        .assertNoErrors()
+        .assertValueCount(3);
+    assertEquals(2, metrics.records());
+    assertEquals(8, metrics.chars());
+    assertEquals(0, metrics.errors());
+    assertTrue(metrics.nanos(CsvMetrics.Stage.FORMAT) > 0);
+    assertTrue(metrics.backpressureNanos() > 0);
+  }
+
   @Test
   public void testName() throws Exception {
     writer
@@ -258,4 +323,14 @@ public class CsvWriterTest {
     @CSV
     String b;
   }
+
+  @EqualsAndHashCode
+  @NoArgsConstructor
+  @AllArgsConstructor
+  public static class T {
+    @CSV(pattern = "yyyy/MM/dd")
+    LocalDate date;
+    @CSV
+    Instant time;
+  }
 }
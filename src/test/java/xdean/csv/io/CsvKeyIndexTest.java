@@ -0,0 +1,78 @@
+package xdean.csv.io;
+
+import static org.junit.Assert.*;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import xdean.csv.CsvColumn;
+import xdean.csv.CsvConfiguration;
+import xdean.csv.CsvValueParser;
+import xdean.csv.fluent.FluentCSV;
+
+public class CsvKeyIndexTest {
+  private static final CsvColumn<Integer> ID = CsvColumn.create("id", CsvValueParser.INT);
+  private static final CsvColumn<String> NAME = CsvColumn.create("name", CsvValueParser.STRING);
+
+  @Rule
+  public TemporaryFolder temp = new TemporaryFolder();
+
+  @Test
+  public void testLookup() throws Exception {
+    Path file = temp.newFile("a.csv").toPath();
+    Files.write(file, Arrays.asList("name,id", "a,1", "b,02", "# c,3", "d,x", "e,1"));
+    CsvConfiguration csv = FluentCSV.create().addColumns(ID, NAME);
+    CsvKeyIndex<Integer> index = csv.keyIndex(file, ID);
+    assertTrue(Files.exists(CsvKeyIndex.pathOf(file, ID)));
+    assertEquals(3, index.count());
+    index.lookup(csv.readList(), 1)
+        .test()
+        .assertNoErrors()
+        .assertValues(Arrays.asList(1, "a"), Arrays.asList(1, "e"));
+    index.lookup(csv.readList(), 2)
+        .test()
+        .assertValues(Arrays.asList(2, "b"));
+    assertEquals(0, index.offsets(3).size());
+  }
+
+  @Test
+  public void testOutOfDate() throws Exception {
+    Path file = temp.newFile("b.csv").toPath();
+    Files.write(file, Arrays.asList("id", "1"));
+    CsvConfiguration csv = FluentCSV.create().addColumns(ID);
+    CsvKeyIndex<Integer> index = csv.keyIndex(file, ID);
+    Files.write(file, Arrays.asList("id", "2", "1"));
+    assertFalse(index.isValid());
+    List<Long> offsets = csv.keyIndex(file, ID).offsets(1);
+    assertEquals(Arrays.asList(5L), offsets);
+  }
+
+  @Test
+  public void testDifferentParser() throws Exception {
+    Path file = temp.newFile("d.csv").toPath();
+    Files.write(file, Arrays.asList("id", "1", "02"));
+    FluentCSV.create().addColumns(ID).keyIndex(file, ID);
+    CsvColumn<String> text = CsvColumn.create("id", CsvValueParser.STRING);
+    List<Long> offsets = FluentCSV.create().addColumns(text).keyIndex(file, text).offsets("02");
+    assertEquals(Arrays.asList(5L), offsets);
+  }
+
+  @Test
+  public void testCharset() throws Exception {
+    Path file = temp.newFile("c.csv").toPath();
+    Files.write(file, Arrays.asList("name,id", "caf\u00e9,1", "cafe,2"), StandardCharsets.ISO_8859_1);
+    CsvConfiguration csv = FluentCSV.create().addColumns(ID, NAME);
+    csv.keyIndex(file, NAME, StandardCharsets.ISO_8859_1)
+        .lookup(csv.readList(), "caf\u00e9")
+        .test()
+        .assertNoErrors()
+        .assertValues(Arrays.asList(1, "caf\u00e9"));
+  }
+}
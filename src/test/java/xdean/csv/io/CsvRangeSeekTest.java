@@ -0,0 +1,53 @@
+package xdean.csv.io;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import xdean.csv.CsvColumn;
+import xdean.csv.CsvConfiguration;
+import xdean.csv.CsvValueParser;
+import xdean.csv.fluent.FluentCSV;
+
+public class CsvRangeSeekTest {
+  private static final CsvColumn<Long> TIME = CsvColumn.create("time", CsvValueParser.LONG);
+
+  @Rule
+  public TemporaryFolder temp = new TemporaryFolder();
+
+  @Test
+  public void testRange() throws Exception {
+    Path file = temp.newFile("log.csv").toPath();
+    List<String> lines = new ArrayList<>();
+    lines.add("time,value");
+    for (int i = 0; i < 1000; i++) {
+      lines.add(i * 2 + ",v" + i);
+      if (i % 100 == 0) {
+        lines.add("# comment");
+      }
+    }
+    Files.write(file, lines);
+    CsvConfiguration csv = FluentCSV.create().addColumn(TIME);
+    CsvRangeSeek<Long> seek = csv.sortedBy(file, TIME);
+    seek.range(csv.readList(), 11L, 17L)
+        .test()
+        .assertNoErrors()
+        .assertValues(Arrays.asList(12L), Arrays.asList(14L), Arrays.asList(16L));
+    seek.range(csv.readList(), 1995L, null)
+        .test()
+        .assertValues(Arrays.asList(1996L), Arrays.asList(1998L));
+    seek.range(csv.readList(), null, 2L)
+        .test()
+        .assertValues(Arrays.asList(0L));
+    seek.range(csv.readList(), 5000L, null)
+        .test()
+        .assertNoValues()
+        .assertComplete();
+  }
+}
@@ -0,0 +1,61 @@
+package xdean.csv.io;
+
+import static org.junit.Assert.*;
+
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class CsvRowIndexTest {
+  @Rule
+  public TemporaryFolder temp = new TemporaryFolder();
+
+  @Test
+  public void testBuild() throws Exception {
+    Path file = temp.newFile("a.csv").toPath();
+    Files.write(file, "# comment\r\nh\r\n0\r\n1\r\n# inner\r\n2\r\n3\r\n4".getBytes());
+    CsvRowIndex index = CsvRowIndex.build(file, 2);
+    assertEquals(5, index.rows());
+    assertEquals(11, index.headerOffset());
+    index.lines(file, 1, 4, Charset.defaultCharset())
+        .test()
+        .assertValues("h", "1", "2", "3");
+    index.lines(file, 3, 100, Charset.defaultCharset())
+        .test()
+        .assertValues("h", "3", "4");
+    index.lines(file, 5, 6, Charset.defaultCharset())
+        .test()
+        .assertValues("h");
+  }
+
+  @Test
+  public void testNoRow() throws Exception {
+    Path file = temp.newFile("empty.csv").toPath();
+    Files.write(file, Arrays.asList("# comment", "h"));
+    CsvRowIndex index = CsvRowIndex.build(file, 2);
+    assertEquals(0, index.rows());
+    assertEquals(10, index.offsetBefore(0));
+    index.lines(file, 0, 10, Charset.defaultCharset())
+        .test()
+        .assertValues("h");
+  }
+
+  @Test
+  public void testSaveAndValidate() throws Exception {
+    Path file = temp.newFile("b.csv").toPath();
+    Files.write(file, Arrays.asList("h", "0", "1", "2"));
+    CsvRowIndex index = CsvRowIndex.of(file);
+    assertTrue(Files.exists(CsvRowIndex.pathOf(file)));
+    CsvRowIndex loaded = CsvRowIndex.load(CsvRowIndex.pathOf(file));
+    assertTrue(loaded.isValidFor(file));
+    assertEquals(index.rows(), loaded.rows());
+    Files.write(file, Arrays.asList("h", "0"));
+    assertFalse(loaded.isValidFor(file));
+    assertEquals(1, CsvRowIndex.of(file).rows());
+  }
+}
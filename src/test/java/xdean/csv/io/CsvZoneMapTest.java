@@ -0,0 +1,103 @@
+package xdean.csv.io;
+
+import static org.junit.Assert.assertEquals;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import xdean.csv.CsvColumn;
+import xdean.csv.CsvConfiguration;
+import xdean.csv.CsvErrorPolicy;
+import xdean.csv.CsvValueParser;
+import xdean.csv.fluent.Configuration;
+import xdean.csv.fluent.FluentCSV;
+import xdean.csv.io.CsvZoneMap.Selection;
+
+public class CsvZoneMapTest {
+  private static final CsvColumn<Integer> DAY = CsvColumn.create("day", CsvValueParser.INT);
+  private static final CsvColumn<String> NAME = CsvColumn.create("name", CsvValueParser.STRING);
+
+  @Rule
+  public TemporaryFolder temp = new TemporaryFolder();
+
+  @Test
+  public void testSelect() throws Exception {
+    Path file = temp.newFile("data.csv").toPath();
+    List<String> lines = new ArrayList<>();
+    lines.add("name,day");
+    for (int i = 0; i < 100; i++) {
+      lines.add("n" + i + "," + (i / 10 * 10 + 9 - i % 10));
+      if (i % 30 == 0) {
+        lines.add("# comment");
+        lines.add("x,");
+      }
+    }
+    Files.write(file, lines);
+    CsvConfiguration csv = FluentCSV.create().addColumn(NAME).addColumn(DAY);
+    CsvZoneMap map = CsvZoneMap.build(file, Configuration.builder().build(), StandardCharsets.UTF_8, 10, DAY, NAME);
+    assertEquals(11, map.blocks());
+
+    Selection<Integer> selection = map.select(DAY, 42, 45);
+    assertEquals(2, selection.blocks());
+    assertEquals(9, selection.pruned());
+    selection.read(csv.readList())
+        .map(l -> l.get(1))
+        .sorted()
+        .test()
+        .assertNoErrors()
+        .assertValues(42, 43, 44);
+
+    map.select(DAY, 200, null)
+        .read(csv.readList())
+        .test()
+        .assertNoValues()
+        .assertComplete();
+
+    map.save(CsvZoneMap.pathOf(file));
+    CsvZoneMap loaded = csv.zoneMap(file, DAY, NAME);
+    assertEquals(11, loaded.blocks());
+    assertEquals(Arrays.asList("n99"), loaded.select(NAME, "n99", "n990")
+        .read(csv.readList())
+        .map(l -> l.get(0))
+        .toList()
+        .blockingGet());
+  }
+
+  @Test
+  public void testDifferentParser() throws Exception {
+    Path file = temp.newFile("parser.csv").toPath();
+    Files.write(file, Arrays.asList("name,day", "a,9", "b,10"));
+    FluentCSV.create().addColumn(NAME).addColumn(DAY).zoneMap(file, DAY);
+    CsvColumn<String> text = CsvColumn.create("day", CsvValueParser.STRING);
+    CsvConfiguration csv = FluentCSV.create().addColumn(NAME).addColumn(text);
+    csv.zoneMap(file, text)
+        .select(text, "9", "90")
+        .read(csv.readList())
+        .map(l -> l.get(0))
+        .test()
+        .assertNoErrors()
+        .assertValues("a");
+  }
+
+  @Test
+  public void testUntokenizableRow() throws Exception {
+    Path file = temp.newFile("bad.csv").toPath();
+    Files.write(file, Arrays.asList("name,day", "a,1", "b\\q,2", "c,3"));
+    CsvZoneMap map = CsvZoneMap.build(file, Configuration.builder().build(), StandardCharsets.UTF_8, 10, DAY);
+    assertEquals(1, map.blocks());
+    map.select(DAY, 1, 4)
+        .read(FluentCSV.create().errorPolicy(CsvErrorPolicy.SKIP_ROW).addColumn(NAME).addColumn(DAY).readList())
+        .map(l -> l.get(1))
+        .test()
+        .assertNoErrors()
+        .assertValues(1, 3);
+  }
+}
@@ -0,0 +1,73 @@
+package xdean.csv.io;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class LineCursorTest {
+  private static final List<String> LINES = Arrays.asList("a,b", "1,1", "", "2,2", "3,3", "4,4");
+
+  @Rule
+  public TemporaryFolder temp = new TemporaryFolder();
+
+  @Test
+  public void testTerminators() throws Exception {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    out.write(new byte[] { (byte) 0xEF, (byte) 0xBB, (byte) 0xBF });
+    out.write("a,b\r1,1\r\n\n2,2\n3,3\r\n4,4\r".getBytes(StandardCharsets.UTF_8));
+    Path file = temp.newFile("a.csv").toPath();
+    Files.write(file, out.toByteArray());
+
+    List<String> lines = new ArrayList<>();
+    List<Long> offsets = new ArrayList<>();
+    try (LineCursor cursor = LineCursor.open(file, 0, StandardCharsets.UTF_8)) {
+      while (cursor.next()) {
+        lines.add(cursor.line());
+        offsets.add(cursor.offset());
+      }
+    }
+    assertEquals(LINES, lines);
+    assertEquals(Arrays.asList(3L, 7L, 12L, 13L, 17L, 22L), offsets);
+
+    try (LineDecoder decoder = LineDecoder.of(Files.newInputStream(file), StandardCharsets.UTF_8)) {
+      List<String> decoded = new ArrayList<>();
+      String line;
+      while ((line = decoder.readLine()) != null) {
+        decoded.add(line);
+      }
+      assertEquals(LINES, decoded);
+    }
+
+    try (LineSpliterator spliterator = LineSpliterator.open(file, StandardCharsets.UTF_8)) {
+      assertEquals(LINES, StreamSupport.stream(spliterator, false).collect(Collectors.toList()));
+    }
+
+    try (LineCursor cursor = LineCursor.open(file, 0, StandardCharsets.UTF_8)) {
+      cursor.sync(1);
+      assertTrue(cursor.next());
+      assertEquals(3, cursor.offset());
+      cursor.sync(7);
+      assertTrue(cursor.next());
+      assertEquals("1,1", cursor.line());
+      cursor.sync(11);
+      assertTrue(cursor.next());
+      assertEquals(12, cursor.offset());
+      cursor.sync(22);
+      assertTrue(cursor.next());
+      assertEquals("4,4", cursor.line());
+      assertFalse(cursor.terminated());
+    }
+  }
+}
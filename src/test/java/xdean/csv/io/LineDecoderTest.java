@@ -0,0 +1,87 @@
+package xdean.csv.io;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+public class LineDecoderTest {
+  @Test
+  public void testTerminators() throws Exception {
+    String text = "a,b\r\n\u4e2d\u6587,1\r\rc\n\nd\r";
+    List<String> expect = Arrays.asList("a,b", "\u4e2d\u6587,1", "", "c", "", "d");
+    assertEquals(expect, lines(new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8)), StandardCharsets.UTF_8));
+    assertEquals(expect, lines(oneByte(text.getBytes(StandardCharsets.UTF_8)), StandardCharsets.UTF_8));
+    assertEquals(Arrays.asList("x", "y"), lines(oneByte("x\ny".getBytes(StandardCharsets.UTF_8)), StandardCharsets.UTF_8));
+  }
+
+  @Test
+  public void testBom() throws Exception {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    out.write(new byte[] { (byte) 0xEF, (byte) 0xBB, (byte) 0xBF });
+    out.write("h\u00e9,b\n1,2".getBytes(StandardCharsets.UTF_8));
+    assertEquals(Arrays.asList("h\u00e9,b", "1,2"), lines(new ByteArrayInputStream(out.toByteArray()),
+        StandardCharsets.ISO_8859_1));
+
+    out.reset();
+    out.write(new byte[] { (byte) 0xFF, (byte) 0xFE });
+    out.write("h\u00e9,b\r\n1,2".getBytes(StandardCharsets.UTF_16LE));
+    LineDecoder decoder = LineDecoder.of(new ByteArrayInputStream(out.toByteArray()), StandardCharsets.UTF_8);
+    assertEquals(StandardCharsets.UTF_16LE, decoder.charset());
+    assertEquals("h\u00e9,b", decoder.readLine());
+    assertEquals("1,2", decoder.readLine());
+    assertEquals(null, decoder.readLine());
+  }
+
+  @Test
+  public void testReader() throws Exception {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    out.write(new byte[] { (byte) 0xEF, (byte) 0xBB, (byte) 0xBF });
+    out.write("h\u00e9,b".getBytes(StandardCharsets.UTF_8));
+    assertEquals("h\u00e9,b", read(LineDecoder.reader(oneByte(out.toByteArray()), StandardCharsets.ISO_8859_1)));
+    assertEquals("h\u00e9", read(LineDecoder.reader(new ByteArrayInputStream("h\u00e9".getBytes(StandardCharsets.UTF_16BE)),
+        StandardCharsets.UTF_16BE)));
+    assertEquals("a", read(LineDecoder.reader(new ByteArrayInputStream(new byte[] { 'a' }), StandardCharsets.UTF_8)));
+  }
+
+  private static String read(Reader reader) throws IOException {
+    StringBuilder sb = new StringBuilder();
+    try (Reader r = reader) {
+      for (int c; (c = r.read()) != -1;) {
+        sb.append((char) c);
+      }
+    }
+    return sb.toString();
+  }
+
+  private static List<String> lines(InputStream input, Charset charset) throws IOException {
+    List<String> lines = new ArrayList<>();
+    try (LineDecoder decoder = LineDecoder.of(input, charset)) {
+      String line;
+      while ((line = decoder.readLine()) != null) {
+        lines.add(line);
+      }
+    }
+    return lines;
+  }
+
+  private static InputStream oneByte(byte[] bytes) {
+    return new FilterInputStream(new ByteArrayInputStream(bytes)) {
+      @Override
+      public int read(byte[] b, int off, int len) throws IOException {
+        return super.read(b, off, Math.min(len, 1));
+      }
+    };
+  }
+}
@@ -0,0 +1,106 @@
+package xdean.csv.jfr;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import io.reactivex.Flowable;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import xdean.csv.CsvColumn;
+import xdean.csv.CsvMetrics;
+import xdean.csv.CsvValueParser;
+import xdean.csv.fluent.FluentCSV;
+
+public class JfrMetricsTest {
+  @Rule
+  public TemporaryFolder temp = new TemporaryFolder();
+
+  @Test
+  public void testEvents() throws Exception {
+    CsvMetrics metrics = CsvMetrics.jfr(0);
+    assertTrue(metrics instanceof JfrMetrics);
+    Path file = temp.newFile("record.jfr").toPath();
+    try (Recording recording = new Recording()) {
+      recording.enable("xdean.csv.Header");
+      recording.enable("xdean.csv.BindingPlan");
+      recording.enable("xdean.csv.Batch");
+      recording.start();
+      FluentCSV.create()
+          .metrics(metrics)
+          .addColumn(CsvColumn.create("a", CsvValueParser.INT))
+          .readList()
+          .from(Flowable.just("a").concatWith(Flowable.range(0, 2048).map(String::valueOf)))
+          .test()
+          .assertNoErrors()
+          .assertValueCount(2048);
+      recording.stop();
+      recording.dump(file);
+    }
+    Map<String, List<RecordedEvent>> events = RecordingFile.readAllEvents(file).stream()
+        .collect(Collectors.groupingBy(e -> e.getEventType().getName()));
+    assertEquals(1, events.get("xdean.csv.Header").size());
+    assertEquals("a", events.get("xdean.csv.Header").get(0).getString("header"));
+    assertEquals(2, events.get("xdean.csv.Batch").size());
+    assertEquals(1024L, events.get("xdean.csv.Batch").get(0).getLong("records"));
+    assertEquals(null, events.get("xdean.csv.SlowRow"));
+  }
+
+  @Test
+  public void testPartialBatch() throws Exception {
+    CsvMetrics metrics = CsvMetrics.jfr(Long.MAX_VALUE);
+    Path file = temp.newFile("partial.jfr").toPath();
+    try (Recording recording = new Recording()) {
+      recording.enable("xdean.csv.Batch");
+      recording.start();
+      for (int rows : new int[] { 10, 5 }) {
+        FluentCSV.create()
+            .metrics(metrics)
+            .addColumn(CsvColumn.create("a", CsvValueParser.INT))
+            .readList()
+            .from(Flowable.just("a").concatWith(Flowable.range(0, rows).map(String::valueOf)))
+            .test()
+            .assertNoErrors()
+            .assertValueCount(rows);
+      }
+      recording.stop();
+      recording.dump(file);
+    }
+    List<Long> records = RecordingFile.readAllEvents(file).stream()
+        .filter(e -> e.getEventType().getName().equals("xdean.csv.Batch"))
+        .map(e -> e.getLong("records"))
+        .collect(Collectors.toList());
+    assertEquals(Arrays.asList(10L, 5L), records);
+  }
+
+  @Test
+  public void testDisabled() throws Exception {
+    CsvMetrics metrics = CsvMetrics.jfr(0);
+    Path file = temp.newFile("disabled.jfr").toPath();
+    try (Recording recording = new Recording()) {
+      recording.start();
+      FluentCSV.create()
+          .metrics(metrics)
+          .addColumn(CsvColumn.create("a", CsvValueParser.INT))
+          .readList()
+          .from(Flowable.just("a").concatWith(Flowable.range(0, 10).map(String::valueOf)))
+          .test()
+          .assertNoErrors()
+          .assertValueCount(10);
+      recording.stop();
+      recording.dump(file);
+    }
+    assertTrue(RecordingFile.readAllEvents(file).stream()
+        .noneMatch(e -> e.getEventType().getName().startsWith("xdean.csv.")));
+  }
+}
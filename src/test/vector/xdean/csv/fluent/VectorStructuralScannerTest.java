@@ -0,0 +1,101 @@
+package xdean.csv.fluent;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import jdk.incubator.vector.ShortVector;
+import xdean.csv.CsvConfiguration;
+import xdean.csv.CsvException;
+
+public class VectorStructuralScannerTest {
+  private static final String ALPHABET = "ab1 ,\"\\\t;'/ntr\u4e2d";
+
+  @Test
+  public void testAvailable() throws Exception {
+    assertTrue(Configuration.builder().vectorize(true).build().vectorized());
+  }
+
+  @Test
+  public void testEquivalence() throws Exception {
+    Random random = new Random(49);
+    for (Configuration.Builder builder : dialects()) {
+      Configuration scalar = builder.vectorize(false).build();
+      Configuration vector = builder.vectorize(true).build();
+      for (int i = 0; i < 5000; i++) {
+        String line = randomLine(random, random.nextInt(i % 10 == 0 ? 300 : 40));
+        assertEquals(line, split(scalar, line), split(vector, line));
+      }
+    }
+  }
+
+  @Test
+  public void testLaneBoundary() throws Exception {
+    int lanes = ShortVector.SPECIES_PREFERRED.length();
+    String[] fragments = { "\"\"", "\",\"", "\\,", "\\\\", "\\\"", "/,", "//", "'x'", ",\"", "\"," };
+    for (Configuration.Builder builder : dialects()) {
+      Configuration scalar = builder.vectorize(false).build();
+      Configuration vector = builder.vectorize(true).build();
+      for (int boundary = lanes; boundary <= 3 * lanes; boundary += lanes) {
+        for (int position = boundary - 2; position <= boundary; position++) {
+          for (String fragment : fragments) {
+            String body = repeat('x', position) + fragment + repeat('x', lanes);
+            for (String line : new String[] { body, "\"" + body.substring(1) + "\"", "a,\"" + body.substring(3) }) {
+              assertEquals(line, split(scalar, line), split(vector, line));
+            }
+          }
+        }
+      }
+    }
+  }
+
+  private static List<Configuration.Builder> dialects() {
+    List<Configuration.Builder> result = new ArrayList<>();
+    char[][] quoteAndEscape = {
+        { CsvConfiguration.NO_QUOTER, CsvConfiguration.DEFAULT_ESCAPER },
+        { '"', CsvConfiguration.DEFAULT_ESCAPER },
+        { '"', CsvConfiguration.NO_ESCAPER },
+        { '\'', '/' },
+        { CsvConfiguration.NO_QUOTER, CsvConfiguration.NO_ESCAPER } };
+    for (boolean ignoreLeadingSpace : new boolean[] { true, false }) {
+      for (char splitor : new char[] { ',', '\t' }) {
+        for (char[] qe : quoteAndEscape) {
+          result.add(Configuration.builder()
+              .splitor(splitor)
+              .quoter(qe[0])
+              .escaper(qe[1])
+              .ignoreLeadingSpace(ignoreLeadingSpace));
+        }
+      }
+    }
+    return result;
+  }
+
+  private static String repeat(char c, int count) {
+    char[] chars = new char[count];
+    Arrays.fill(chars, c);
+    return new String(chars);
+  }
+
+  private static String randomLine(Random random, int length) {
+    StringBuilder sb = new StringBuilder(length);
+    for (int i = 0; i < length; i++) {
+      sb.append(random.nextInt(4) == 0 ? ALPHABET.charAt(random.nextInt(ALPHABET.length())) : 'x');
+    }
+    return sb.toString();
+  }
+
+  private static Object split(Configuration config, String line) {
+    try {
+      return config.split(line);
+    } catch (CsvException e) {
+      return e.getMessage();
+    }
+  }
+}